@@ -0,0 +1,72 @@
+package com.example.seoulapi.config;
+
+import com.example.seoulapi.util.HttpCallTimeout;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+// 외부 API(Kakao, ODsay, 서울시) 공용 HTTP 클라이언트 - 커넥션 풀 + keep-alive
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient externalHttpClient(
+            @Value("${http.client.max-total:200}") int maxTotal,
+            @Value("${http.client.max-per-route:50}") int maxPerRoute,
+            @Value("${http.client.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${http.client.read-timeout-ms:20000}") long readTimeoutMs,
+            @Value("${http.client.idle-evict-sec:30}") long idleEvictSec
+    ) {
+        // 호스트(route)별 연결 수 제한
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+
+        // 응답 gzip 압축은 HttpClient 기본 동작(Accept-Encoding + 자동 해제)
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSec))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate externalRestTemplate(CloseableHttpClient externalHttpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(externalHttpClient);
+
+        // HttpCallTimeout.within(...) 안에서 호출하면 그 한도로 풀 대기/응답 대기 (나머지는 클라이언트 기본값)
+        requestFactory.setHttpContextFactory((method, uri) -> {
+            Long timeoutMs = HttpCallTimeout.current();
+            if (timeoutMs == null) return null;
+
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.ofMilliseconds(timeoutMs))
+                    .setResponseTimeout(Timeout.ofMilliseconds(timeoutMs))
+                    .build());
+            return context;
+        });
+        return new RestTemplate(requestFactory);
+    }
+}
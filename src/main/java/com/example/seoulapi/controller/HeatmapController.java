@@ -2,17 +2,25 @@ package com.example.seoulapi.controller;
 
 import com.example.seoulapi.dto.HeatmapRequestDto;
 import com.example.seoulapi.dto.HeatmapResponseDto;
+import com.example.seoulapi.service.HeatmapCacheService;
 import com.example.seoulapi.service.HeatmapService;
+import com.example.seoulapi.service.ScoringEngine;
+import com.example.seoulapi.util.ScoringWorkerPool;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/heatmap")
 @RequiredArgsConstructor
 public class HeatmapController {
 
     private final HeatmapService heatmapService;
+    private final ScoringWorkerPool scoringWorkerPool;
+    private final HeatmapCacheService heatmapCacheService;
+    private final ScoringEngine scoringEngine;
 
     @PostMapping
     public ResponseEntity<HeatmapResponseDto> getHeatmap(@RequestBody HeatmapRequestDto request) {
@@ -27,4 +35,29 @@ public class HeatmapController {
         );
         return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+
+    // 점수 계산 워커 상태
+    @GetMapping("/workers")
+    public Map<String, Object> getWorkerStatus() {
+        return scoringWorkerPool.getStatus();
+    }
+
+    // JVM 점수 계산 상태 (검증 통과/불일치 구 목록)
+    @GetMapping("/engine")
+    public Map<String, Object> getEngineStatus() {
+        return scoringEngine.getStatus();
+    }
+
+    // 히트맵 결과 캐시 통계
+    @GetMapping("/cache")
+    public Map<String, Object> getCacheStats() {
+        return heatmapCacheService.getStats();
+    }
+
+    // 히트맵 결과 캐시 비우기
+    @DeleteMapping("/cache")
+    public ResponseEntity<String> evictCache() {
+        heatmapCacheService.clear();
+        return ResponseEntity.ok("히트맵 캐시 초기화 완료");
+    }
+}
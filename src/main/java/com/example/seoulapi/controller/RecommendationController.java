@@ -2,13 +2,18 @@ package com.example.seoulapi.controller;
 
 import com.example.seoulapi.dto.RecommendationRequestDto;
 import com.example.seoulapi.dto.RecommendedRoomResponse;
+import com.example.seoulapi.service.CommuteLowerBound;
 import com.example.seoulapi.service.RecommendationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 // 추천 매물 API 컨트롤러 - 통근 시간/거리 기반으로 추천 리스트 반환
 @RestController
@@ -17,6 +22,7 @@ import java.util.Map;
 public class RecommendationController {
 
     private final RecommendationService recommendationService;
+    private final CommuteLowerBound commuteLowerBound;
 
     // 한 번에 계산
     @PostMapping
@@ -33,10 +39,30 @@ public class RecommendationController {
     public ResponseEntity<Map<String, Object>> getRecommendedRoomsPaged(
             @RequestParam(defaultValue = "0") int cursor,
             @RequestParam(defaultValue = "10") int batchSize,
+            @RequestParam(required = false) String sessionToken,  // 이전 페이지 응답의 sessionToken
             @RequestBody RecommendationRequestDto request
     ) {
         Map<String, Object> result =
-                recommendationService.getRecommendedRoomsPaged(request, cursor, batchSize);
+                recommendationService.getRecommendedRoomsPaged(request, cursor, batchSize, sessionToken);
         return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+
+    // 스트리밍(SSE) - 통근시간이 나오는 대로 room 이벤트, 끝나면 summary 이벤트
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRecommendedRooms(
+            @RequestBody RecommendationRequestDto request
+    ) {
+        try {
+            return ResponseEntity.ok(recommendationService.streamRecommendedRooms(request));
+        } catch (RejectedExecutionException e) {
+            // 동시 스트리밍 요청이 한도를 넘음
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    // 직선거리 하한 필터 현황 (학습된 속도 상한, 절감된 외부 API 호출 수)
+    @GetMapping("/pruning")
+    public ResponseEntity<Map<String, Object>> getPruningStatus() {
+        return ResponseEntity.ok(commuteLowerBound.getStatus());
+    }
+}
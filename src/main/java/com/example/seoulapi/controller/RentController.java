@@ -1,23 +1,22 @@
 package com.example.seoulapi.controller;
 
 import com.example.seoulapi.scheduler.CoordinateFixScheduler;
-import org.springframework.beans.factory.annotation.Value;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import com.example.seoulapi.dto.RoomPageResponse;
+import com.example.seoulapi.dto.RoomSearchCondition;
 import com.example.seoulapi.model.RoomEntity;
+import com.example.seoulapi.service.GeocodeService;
+import com.example.seoulapi.service.RentIngestionService;
 import com.example.seoulapi.service.RentService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.List;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 import com.example.seoulapi.scheduler.RentScheduler;
 
@@ -30,20 +29,18 @@ public class RentController {
     private final RentService rentService;
     private final CoordinateFixScheduler coordinateFixScheduler;
     private final RentScheduler rentScheduler;
+    private final RentIngestionService rentIngestionService;
+    private final GeocodeService geocodeService;
 
-    @Value("${seoul.api.key}")
-    private String seoulApiKey;
+    private static final int MAX_PAGE_SIZE = 1000;
 
-    @Value("${seoul.api.startYear}")
-    private int startYear;
-
-    @Value("${seoul.api.endYear}")
-    private int endYear;
-
-    public RentController(RentService rentService, CoordinateFixScheduler coordinateFixScheduler, RentScheduler rentScheduler) {
+    public RentController(RentService rentService, CoordinateFixScheduler coordinateFixScheduler, RentScheduler rentScheduler,
+                          RentIngestionService rentIngestionService, GeocodeService geocodeService) {
         this.rentService = rentService;
         this.coordinateFixScheduler = coordinateFixScheduler;
         this.rentScheduler = rentScheduler;
+        this.rentIngestionService = rentIngestionService;
+        this.geocodeService = geocodeService;
     }
 
     // 수동 갱신 실행
@@ -91,133 +88,61 @@ public class RentController {
         return rentService.getRoomsByRentFeeRange(min, max);
     }
 
-    // 좌표변환
+    // 좌표변환 - 좌표 없는 매물 전체 재시도 (백그라운드 워커)
     @PostMapping("/fix-coordinates")
     public ResponseEntity<String> fixCoordinates() {
-        rentService.fixCoordinatesSequentially();
-        return ResponseEntity.ok("좌표 변환 작업 시작");
+        if (!geocodeService.requeueAndStart()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("이미 좌표 변환 작업이 실행 중입니다.");
+        }
+        return ResponseEntity.accepted().body("좌표 변환 작업 시작 (진행 상황: /api/rent/fix-coordinates/status)");
     }
 
-    // 초기 적재 - 서울시 전월세 정보 API에서 데이터 불러와 DB 저장
-    @GetMapping("/loadAll")
-    public String loadAllSeoulData() {
+    // 좌표변환 진행 상황/처리량
+    @GetMapping("/fix-coordinates/status")
+    public Map<String, Object> getFixCoordinatesStatus() {
+        return geocodeService.getStatus();
+    }
 
-        int totalInserted = 0;
-        try {
-            System.out.println("==== 최근 1년치 데이터 적재 시작 ====");
-            System.out.println("대상 연도: " + this.startYear + " ~ " + this.endYear);
-
-
-            for (int year = this.startYear; year <= this.endYear; year++) {
-                // 연도별 총 데이터 개수 확인용
-                String countUrl = "http://openapi.seoul.go.kr:8088/" + seoulApiKey
-                        + "/json/tbLnOpendataRentV/1/1?RCPT_YR=" + year;
-
-                URL url = new URL(countUrl);
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-
-                BufferedReader br = new BufferedReader(new InputStreamReader(conn.getInputStream(), "UTF-8"));
-                StringBuilder sb = new StringBuilder();
-                String line;
-                while ((line = br.readLine()) != null) {
-                    sb.append(line);
-                }
-                br.close();
-
-                ObjectMapper mapper = new ObjectMapper();
-                JsonNode root = mapper.readTree(sb.toString());
-
-                int total = root.path("tbLnOpendataRentV").path("list_total_count").asInt();
-                System.out.println("총 " + year + "년 데이터 개수: " + total);
-
-                // 페이징 루프
-                for (int start = 1; start <= total; start += 1000) {
-                    int end = Math.min(start + 999, total);
-                    boolean success = false;
-                    int retryCount = 0;
-
-                    while (!success && retryCount < 3) {
-                        try {
-                            String urlStr = "http://openapi.seoul.go.kr:8088/"
-                                    + seoulApiKey + "/json/tbLnOpendataRentV/"
-                                    + start + "/" + end
-                                    + "?RCPT_YR=" + year;
-
-                            System.out.println("요청 URL = " + urlStr);
-
-                            URL pageUrl = new URL(urlStr);
-                            HttpURLConnection pageConn = (HttpURLConnection) pageUrl.openConnection();
-                            pageConn.setRequestMethod("GET");
-                            pageConn.setConnectTimeout(10000); // 연결 제한
-                            pageConn.setReadTimeout(20000);    // 응답 제한
-
-                            BufferedReader pageBr = new BufferedReader(new InputStreamReader(pageConn.getInputStream(), "UTF-8"));
-                            StringBuilder pageSb = new StringBuilder();
-                            String pageLine;
-                            while ((pageLine = pageBr.readLine()) != null) {
-                                pageSb.append(pageLine);
-                            }
-                            pageBr.close();
-
-                            JsonNode pageRoot = mapper.readTree(pageSb.toString());
-                            JsonNode rows = pageRoot.path("tbLnOpendataRentV").path("row");
-
-                            if (rows.isMissingNode() || rows.size() == 0) {
-                                System.out.println("[경고] " + start + "~" + end + " 구간: 데이터 없음, 스킵");
-                                success = true;
-                                continue;
-                            }
-
-                            // 최근 1년치 필터링
-                            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd");
-                            LocalDate oneYearAgo = LocalDate.now().minusYears(1);
-                            List<JsonNode> rowList = new java.util.ArrayList<>();
-
-                            for (JsonNode row : rows) {
-                                String ctrtDay = row.path("CTRT_YMD").asText("");
-                                if (!ctrtDay.isEmpty()) {
-                                    try {
-                                        LocalDate contractDate = LocalDate.parse(ctrtDay, formatter);
-                                        if (contractDate.isBefore(oneYearAgo)) {
-                                            continue; // 1년 이전 계약은 스킵
-                                        }
-                                    } catch (Exception ignored) {
-                                        continue; // 파싱 안 되면 스킵
-                                    }
-                                }
-                                rowList.add(row);
-                            }
-
-                            rentService.saveRooms(rowList);
-                            totalInserted += rowList.size();
-
-                            System.out.println("[" + year + "] 적재 완료: " + start + "~" + end + " (누적: " + totalInserted + ")");
-                            success = true;
-
-                        } catch (Exception e) {
-                            retryCount++;
-                            System.err.println("️ [" + year + "] " + start + "~" + end + " 구간 실패 (" + retryCount + "회차)");
-                            e.printStackTrace();
-                            try {
-                                Thread.sleep(3000);
-                            } catch (InterruptedException ignored) {
-                            }
-                        }
-                    }
-
-                    if (!success) {
-                        System.err.println(" [" + year + "] " + start + "~" + end + " 구간 3회 실패 -> 스킵");
-                    }
-                }
-            }
-
-            System.out.println(" 최근 1년치 데이터 적재 완료 ");
-            return "최근 1년치 데이터 적재 완료 (총 " + totalInserted + "건). ";
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "서울시 데이터 적재 실패: " + e.getMessage();
+    // 매물 목록 keyset 페이지 (cursor = 이전 응답의 nextCursor)
+    @GetMapping("/page")
+    public RoomPageResponse getRoomsPage(@RequestParam(required = false) Long cursor,
+                                         @RequestParam(defaultValue = "100") int size,
+                                         @RequestParam(required = false) String gu,
+                                         @RequestParam(required = false) String dong) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return rentService.getRoomsPage(cursor, pageSize, gu, dong);
+    }
+
+    // 복합 조건 검색 (구/동, 전월세, 보증금/월세/면적/층/건축년도 범위) - keyset 페이지
+    @GetMapping("/search")
+    public RoomPageResponse searchRooms(@ModelAttribute RoomSearchCondition condition) {
+        int size = condition.getSize() == null ? 100 : condition.getSize();
+        return rentService.searchRooms(condition, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    // 매물 전체 내보내기 - NDJSON 스트리밍 (한 줄에 매물 하나)
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamRooms(@RequestParam(required = false) String gu,
+                                                             @RequestParam(required = false) String dong) {
+        StreamingResponseBody body = out -> rentService.streamRooms(gu, dong, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    // 초기 적재 - 서울시 전월세 정보 API에서 데이터 불러와 DB 저장 (백그라운드 작업, 체크포인트부터 재개)
+    @GetMapping("/loadAll")
+    public ResponseEntity<String> loadAllSeoulData(@RequestParam(defaultValue = "false") boolean reset) {
+        if (!rentIngestionService.startFullLoad(reset)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("이미 적재 작업이 실행 중입니다.");
         }
+        return ResponseEntity.accepted().body("서울시 데이터 적재 시작 (진행 상황: /api/rent/loadAll/status)");
+    }
+
+    // 적재 진행 상황/처리량
+    @GetMapping("/loadAll/status")
+    public Map<String, Object> getLoadAllStatus() {
+        return rentIngestionService.getStatus();
     }
 
 
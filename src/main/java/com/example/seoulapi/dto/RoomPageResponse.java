@@ -0,0 +1,18 @@
+package com.example.seoulapi.dto;
+
+import com.example.seoulapi.model.RoomEntity;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+// 매물 목록 keyset 페이지
+@Getter
+@Builder
+public class RoomPageResponse {
+    private Long cursor;            // 이번 요청 cursor (이 id 다음부터)
+    private int size;               // 요청 크기
+    private boolean hasNext;        // 다음 페이지가 남아있는지
+    private Long nextCursor;        // 다음 요청에 넘길 cursor (마지막 매물 id)
+    private List<RoomEntity> items;
+}
@@ -0,0 +1,26 @@
+package com.example.seoulapi.dto;
+
+import lombok.Data;
+
+// 매물 복합 검색 조건 (null이면 조건 없음)
+@Data
+public class RoomSearchCondition {
+
+    private String gu;
+    private String dong;
+    private String rentType;     // 전세 or 월세
+
+    private Double minDeposit;
+    private Double maxDeposit;
+    private Double minRentFee;
+    private Double maxRentFee;
+    private Double minArea;
+    private Double maxArea;
+    private Integer minFloor;
+    private Integer maxFloor;
+    private Integer minArchYear;
+    private Integer maxArchYear;
+
+    private Long cursor;         // 이전 응답의 nextCursor
+    private Integer size;        // 페이지 크기
+}
@@ -0,0 +1,29 @@
+package com.example.seoulapi.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 통근시간 캐시 (매물 id + 목적지 셀 + 교통수단 단위)
+@Entity
+@Table(name = "commute_cache")
+@Getter
+@Setter
+public class CommuteCacheEntity {
+
+    @Id
+    @Column(name = "cache_key", length = 100)
+    private String cacheKey;    // roomId:매물셀:목적지셀:교통수단
+
+    private Long roomId;        // 매물 id
+    private String destCell;    // 양자화된 목적지 셀
+    private String mode;        // TRANSIT or DRIVING
+
+    private Integer durationMin; // 소요시간(분)
+    private String method;       // TRANSIT or DRIVING
+
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
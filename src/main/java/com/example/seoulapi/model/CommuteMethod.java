@@ -0,0 +1,9 @@
+package com.example.seoulapi.model;
+
+// 통근시간 산출 방식
+public enum CommuteMethod {
+    TRANSIT,        // ODsay 대중교통 경로
+    WALK_FALLBACK,  // 대중교통 경로 없음/지연 -> 도보 환산
+    NO_PATH,        // 통근 불가 (필터링에서 제외)
+    DRIVING         // 카카오 자차 경로
+}
@@ -0,0 +1,5 @@
+package com.example.seoulapi.model;
+
+// 통근시간 계산 출발지 (매물 id + 좌표)
+public record CommuteOrigin(long id, double lat, double lng) {
+}
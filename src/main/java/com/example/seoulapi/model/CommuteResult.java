@@ -0,0 +1,16 @@
+package com.example.seoulapi.model;
+
+// 매물별 통근시간 계산 결과
+public record CommuteResult(long id, int durationMin, CommuteMethod method) {
+
+    // 통근 불가 소요시간 - 어떤 제한시간 필터도 통과하지 못함
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    public static CommuteResult noPath(long id) {
+        return new CommuteResult(id, UNREACHABLE, CommuteMethod.NO_PATH);
+    }
+
+    public boolean within(int limitMin) {
+        return durationMin <= limitMin;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.seoulapi.model;
+
+// 카카오 길찾기 summary (거리 m, 소요시간 초)
+public record DrivingSummary(int distanceMeters, int durationSeconds) {
+}
@@ -0,0 +1,28 @@
+package com.example.seoulapi.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 주소 단위 지오코딩 결과 캐시 (정제된 주소 -> 좌표)
+@Entity
+@Table(name = "geocode_cache")
+@Getter
+@Setter
+public class GeocodeCacheEntity {
+
+    @Id
+    @Column(name = "address_key", length = 300)
+    private String addressKey;  // AddressUtil.clean 결과
+
+    private Double x;           // 경도
+    private Double y;           // 위도
+    private Boolean found;      // 카카오에서 좌표를 못 찾은 주소면 false
+
+    private String source;      // kakao
+
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;  // found = false 인 경우만
+}
@@ -0,0 +1,30 @@
+package com.example.seoulapi.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 서울시 데이터 적재 체크포인트 (접수연도 + 페이지 단위)
+@Entity
+@Table(name = "ingestion_checkpoint")
+@Getter
+@Setter
+public class IngestionCheckpointEntity {
+
+    @Id
+    @Column(name = "checkpoint_key", length = 40)
+    private String checkpointKey;   // 접수연도:페이지시작
+
+    private Integer receiptYear;    // 접수연도
+    private Integer pageStart;      // 페이지 시작 번호
+    private Integer pageEnd;        // 페이지 끝 번호
+
+    @Column(length = 20)
+    private String status;          // DONE or FAILED
+
+    private Integer rowCount;       // 신규 저장 건수
+    private Integer totalCount;     // 기록 당시 연도 총 건수 (바뀌면 페이지 오프셋이 어긋나 무효)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,25 @@
+package com.example.seoulapi.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 증분 동기화 기준점 (접수연도 단위)
+@Entity
+@Table(name = "sync_watermark")
+@Getter
+@Setter
+public class SyncWatermarkEntity {
+
+    @Id
+    private Integer receiptYear;    // 접수연도
+
+    private Integer totalCount;     // 마지막 동기화 시점의 API 총 건수
+
+    @Column(name = "max_ctrt_day", length = 8)
+    private String maxCtrtDay;      // 지금까지 본 최신 계약일 (yyyyMMdd)
+
+    private LocalDateTime updatedAt;
+}
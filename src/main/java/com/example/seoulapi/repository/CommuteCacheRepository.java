@@ -0,0 +1,40 @@
+package com.example.seoulapi.repository;
+
+import com.example.seoulapi.model.CommuteCacheEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+// 통근시간 캐시 DB 접근
+@Repository
+public interface CommuteCacheRepository extends JpaRepository<CommuteCacheEntity, String> {
+
+    // merge(select 후 insert) 대신 한 번에 upsert
+    @Modifying
+    @Query(value = """
+            INSERT INTO commute_cache (cache_key, room_id, dest_cell, mode, duration_min, method, created_at, expires_at)
+            VALUES (:cacheKey, :roomId, :destCell, :mode, :durationMin, :method, :createdAt, :expiresAt)
+            ON CONFLICT (cache_key) DO UPDATE
+                SET duration_min = EXCLUDED.duration_min,
+                    method       = EXCLUDED.method,
+                    created_at   = EXCLUDED.created_at,
+                    expires_at   = EXCLUDED.expires_at
+            """, nativeQuery = true)
+    void upsert(@Param("cacheKey") String cacheKey,
+                @Param("roomId") Long roomId,
+                @Param("destCell") String destCell,
+                @Param("mode") String mode,
+                @Param("durationMin") int durationMin,
+                @Param("method") String method,
+                @Param("createdAt") LocalDateTime createdAt,
+                @Param("expiresAt") LocalDateTime expiresAt);
+
+    // 만료된 캐시 정리
+    @Modifying
+    @Query("delete from CommuteCacheEntity c where c.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,41 @@
+package com.example.seoulapi.repository;
+
+import com.example.seoulapi.model.GeocodeCacheEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+// 지오코딩 캐시 DB 접근
+@Repository
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntity, String> {
+
+    // 워커 여러 개가 같은 주소를 동시에 저장할 수 있으므로 upsert
+    @Modifying
+    @Query(value = """
+            INSERT INTO geocode_cache (address_key, x, y, found, source, created_at, expires_at)
+            VALUES (:addressKey, :x, :y, :found, :source, :createdAt, :expiresAt)
+            ON CONFLICT (address_key) DO UPDATE
+                SET x          = EXCLUDED.x,
+                    y          = EXCLUDED.y,
+                    found      = EXCLUDED.found,
+                    source     = EXCLUDED.source,
+                    created_at = EXCLUDED.created_at,
+                    expires_at = EXCLUDED.expires_at
+            """, nativeQuery = true)
+    void upsert(@Param("addressKey") String addressKey,
+                @Param("x") Double x,
+                @Param("y") Double y,
+                @Param("found") boolean found,
+                @Param("source") String source,
+                @Param("createdAt") LocalDateTime createdAt,
+                @Param("expiresAt") LocalDateTime expiresAt);
+
+    // 만료된 캐시 정리
+    @Modifying
+    @Query("delete from GeocodeCacheEntity g where g.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,27 @@
+package com.example.seoulapi.repository;
+
+import com.example.seoulapi.model.IngestionCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// 적재 체크포인트 DB 접근
+@Repository
+public interface IngestionCheckpointRepository extends JpaRepository<IngestionCheckpointEntity, String> {
+
+    // 연도별 특정 상태 페이지 시작 번호 (재개 시 완료 페이지 스킵용)
+    @Query("select c.pageStart from IngestionCheckpointEntity c where c.receiptYear = :year and c.status = :status")
+    List<Integer> findPageStarts(@Param("year") int year, @Param("status") String status);
+
+    // 총 건수가 다른(또는 모르는) 시점에 기록된 연도 체크포인트 삭제
+    @Modifying
+    @Transactional
+    @Query("delete from IngestionCheckpointEntity c where c.receiptYear = :year "
+            + "and (c.totalCount is null or c.totalCount <> :total)")
+    int deleteStale(@Param("year") int year, @Param("total") int total);
+}
@@ -0,0 +1,13 @@
+package com.example.seoulapi.repository;
+
+// 위치 기반 조회 결과 (매물 id, 좌표, 기준점까지 거리)
+public interface NearbyRoom {
+
+    Long getId();
+
+    Double getLat();        // 위도 (y)
+
+    Double getLng();        // 경도 (x)
+
+    Double getDistanceM();  // 기준점까지 거리(m)
+}
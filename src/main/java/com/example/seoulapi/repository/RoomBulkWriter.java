@@ -0,0 +1,170 @@
+package com.example.seoulapi.repository;
+
+import com.example.seoulapi.model.RoomEntity;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// 매물 벌크 저장 - PostgreSQL COPY로 스테이징 테이블 적재 후 한 번에 INSERT
+@Repository
+@RequiredArgsConstructor
+public class RoomBulkWriter {
+
+    // RoomEntity room_seq allocationSize와 동일해야 함
+    private static final int SEQUENCE_ALLOCATION = 1000;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String COLUMNS =
+            "id, api_id, gu, dong, lot_number, building, address_full, contract_date, rent_type, "
+                    + "deposit, rent_fee, area, floor, arch_year, receipt_year, x, y, "
+                    + "geocode_status, geocode_attempts";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 실제 삽입 건수 반환 (api_id 중복은 DB에서 무시)
+    // 스테이징 테이블이 커밋 시 비워지므로 반드시 트랜잭션 안에서 실행
+    @Transactional
+    public int copyInsert(List<RoomEntity> rooms) {
+        if (rooms.isEmpty()) return 0;
+
+        long[] ids = allocateIds(rooms.size());
+        String csv = toCsv(rooms, ids);
+
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMP TABLE IF NOT EXISTS rooms_staging "
+                        + "(LIKE rooms INCLUDING DEFAULTS) ON COMMIT DELETE ROWS");
+            }
+
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                copyManager.copyIn("COPY rooms_staging (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)",
+                        new StringReader(csv));
+            } catch (IOException e) {
+                throw new IllegalStateException("COPY 적재 실패", e);
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                return statement.executeUpdate("INSERT INTO rooms (" + COLUMNS + ") "
+                        + "SELECT " + COLUMNS + " FROM rooms_staging "
+                        + "ON CONFLICT (api_id) DO NOTHING");
+            }
+        });
+    }
+
+    // 실제 삽입 건수 반환 - JDBC 배치 INSERT, api_id 중복(다른 적재 주체가 먼저 넣은 행 포함)은 DB에서 무시
+    @Transactional
+    public int batchInsert(List<RoomEntity> rooms) {
+        if (rooms.isEmpty()) return 0;
+
+        long[] ids = allocateIds(rooms.size());
+        List<Integer> indexes = IntStream.range(0, rooms.size()).boxed().toList();
+
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO rooms (" + COLUMNS + ") VALUES (" + "?, ".repeat(18) + "?) "
+                        + "ON CONFLICT (api_id) DO NOTHING",
+                indexes, BATCH_SIZE, (ps, i) -> {
+                    RoomEntity r = rooms.get(i);
+                    ps.setLong(1, ids[i]);
+                    ps.setString(2, r.getApiId());
+                    ps.setString(3, r.getGu());
+                    ps.setString(4, r.getDong());
+                    ps.setString(5, r.getLotNumber());
+                    ps.setString(6, r.getBuilding());
+                    ps.setString(7, r.getAddressFull());
+                    ps.setString(8, r.getContractDate());
+                    ps.setString(9, r.getRentType());
+                    ps.setObject(10, r.getDeposit(), Types.DOUBLE);
+                    ps.setObject(11, r.getRentFee(), Types.DOUBLE);
+                    ps.setObject(12, r.getArea(), Types.DOUBLE);
+                    ps.setObject(13, r.getFloor(), Types.INTEGER);
+                    ps.setObject(14, r.getArchYear(), Types.INTEGER);
+                    ps.setObject(15, r.getReceiptYear(), Types.INTEGER);
+                    ps.setObject(16, r.getX(), Types.DOUBLE);
+                    ps.setObject(17, r.getY(), Types.DOUBLE);
+                    ps.setString(18, r.getGeocodeStatus());
+                    ps.setObject(19, r.getGeocodeAttempts(), Types.INTEGER);
+                });
+
+        // 중복으로 무시된 행은 0
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0) inserted += count;
+            }
+        }
+        return inserted;
+    }
+
+    // Hibernate pooled 최적화와 같은 방식으로 id 블록 할당 (nextval 1번 = id 1000개)
+    private long[] allocateIds(int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+
+        while (filled < count) {
+            int blocks = (count - filled + SEQUENCE_ALLOCATION - 1) / SEQUENCE_ALLOCATION;
+            List<Long> hiValues = jdbcTemplate.queryForList(
+                    "SELECT nextval('room_seq') FROM generate_series(1, ?)", Long.class, blocks);
+
+            for (Long hi : hiValues) {
+                // 시퀀스 초기값 블록은 Hibernate 쪽 범위와 겹칠 수 있어 사용 안 함
+                if (hi < SEQUENCE_ALLOCATION) continue;
+
+                for (long id = hi - SEQUENCE_ALLOCATION + 1; id <= hi && filled < count; id++) {
+                    ids[filled++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private String toCsv(List<RoomEntity> rooms, long[] ids) {
+        StringBuilder sb = new StringBuilder(rooms.size() * 256);
+
+        for (int i = 0; i < rooms.size(); i++) {
+            RoomEntity r = rooms.get(i);
+            sb.append(ids[i]).append(',');
+            appendText(sb, r.getApiId()).append(',');
+            appendText(sb, r.getGu()).append(',');
+            appendText(sb, r.getDong()).append(',');
+            appendText(sb, r.getLotNumber()).append(',');
+            appendText(sb, r.getBuilding()).append(',');
+            appendText(sb, r.getAddressFull()).append(',');
+            appendText(sb, r.getContractDate()).append(',');
+            appendText(sb, r.getRentType()).append(',');
+            appendValue(sb, r.getDeposit()).append(',');
+            appendValue(sb, r.getRentFee()).append(',');
+            appendValue(sb, r.getArea()).append(',');
+            appendValue(sb, r.getFloor()).append(',');
+            appendValue(sb, r.getArchYear()).append(',');
+            appendValue(sb, r.getReceiptYear()).append(',');
+            appendValue(sb, r.getX()).append(',');
+            appendValue(sb, r.getY()).append(',');
+            appendText(sb, r.getGeocodeStatus()).append(',');
+            appendValue(sb, r.getGeocodeAttempts()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // CSV 문자열 - 항상 따옴표로 감싸고 내부 따옴표는 두 번 (null은 빈 값 = NULL)
+    private StringBuilder appendText(StringBuilder sb, String value) {
+        if (value == null) return sb;
+        return sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private StringBuilder appendValue(StringBuilder sb, Object value) {
+        return value == null ? sb : sb.append(value);
+    }
+}
@@ -1,16 +1,25 @@
 package com.example.seoulapi.repository;
 
 import com.example.seoulapi.model.RoomEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 // 매물 DB 접근
 @Repository
-public interface RoomRepository extends JpaRepository<RoomEntity, Long> {
+public interface RoomRepository extends JpaRepository<RoomEntity, Long>, JpaSpecificationExecutor<RoomEntity> {
 
     List<RoomEntity> findByGu(String gu);
 
@@ -24,16 +33,143 @@ public interface RoomRepository extends JpaRepository<RoomEntity, Long> {
 
     boolean existsByApiId(String apiId);
 
+    // 주어진 apiId 중 DB에 있는 것만 (지문 인덱스 적중분 확인용)
+    @Query("select r.apiId from RoomEntity r where r.apiId in :apiIds")
+    List<String> findExistingApiIds(@Param("apiIds") Collection<String> apiIds);
 
-    // 모든 apiId만 가져오기(중복 체크용)
-    @Query("select r.apiId from RoomEntity r")
-    List<String> findAllApiIds();
+
+    // id keyset 페이지 (cursor 다음 id부터, 구/동은 null이면 조건 없음)
+    @Query("select r from RoomEntity r where r.id > :cursor " +
+            "and (:gu is null or r.gu = :gu) and (:dong is null or r.dong = :dong) order by r.id")
+    List<RoomEntity> findPageAfter(@Param("cursor") long cursor,
+                                   @Param("gu") String gu,
+                                   @Param("dong") String dong,
+                                   Limit limit);
+
+    // 전체 스트리밍 조회 (내보내기용) - 트랜잭션 안에서 소비, 읽은 엔티티는 호출 측에서 detach
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r from RoomEntity r " +
+            "where (:gu is null or r.gu = :gu) and (:dong is null or r.dong = :dong) order by r.id")
+    Stream<RoomEntity> streamRooms(@Param("gu") String gu, @Param("dong") String dong);
+
+    // 모든 apiId 스트리밍 조회(중복 체크 인덱스 적재용) - 트랜잭션 안에서 소비
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("select r.apiId from RoomEntity r where r.apiId is not null")
+    Stream<String> streamAllApiIds();
+
+    // 접수연도별 최신 계약일 (증분 동기화 기준점이 없을 때 사용)
+    @Query("select max(r.contractDate) from RoomEntity r where r.receiptYear = :year")
+    String findMaxContractDate(@Param("year") int year);
 
     List<RoomEntity> findTop1000ByGeocodeStatus(String geocodeStatus);
 
     Optional<RoomEntity> findTopByGeocodeStatusAndGeocodeAttemptsLessThanOrderByIdAsc(String status, int maxAttempts);
 
+    // 지오코딩 대상 배치 선점 - 다른 워커가 잠근 행은 건너뜀
+    @Query(value = """
+            SELECT * FROM rooms
+            WHERE geocode_status = 'PENDING'
+              AND geocode_attempts < :maxAttempts
+              AND (x IS NULL OR y IS NULL)
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<RoomEntity> claimPendingBatch(@Param("maxAttempts") int maxAttempts, @Param("batchSize") int batchSize);
+
+    // 같은 주소의 좌표 없는 매물 (다른 워커가 선점한 행은 건너뜀)
+    @Query(value = """
+            SELECT * FROM rooms
+            WHERE address_full = :addressFull
+              AND (x IS NULL OR y IS NULL)
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<RoomEntity> lockRoomsWithoutCoordinatesByAddress(@Param("addressFull") String addressFull);
+
+    // 좌표 없는 매물의 주소 목록 (캐시 백필용)
+    @Query(value = """
+            SELECT DISTINCT address_full FROM rooms
+            WHERE (x IS NULL OR y IS NULL)
+              AND address_full IS NOT NULL
+            """, nativeQuery = true)
+    List<String> findAddressesWithoutCoordinates();
+
+    // 같은 주소의 좌표 없는 매물에 좌표 일괄 반영 - 반영된 매물 id 반환 (공간 인덱스 부분 갱신용)
+    // RETURNING 결과를 받아야 하므로 @Modifying 없이 조회로 실행 (호출 측 트랜잭션 필요)
+    @Query(value = """
+            UPDATE rooms
+            SET x = :x, y = :y,
+                geocode_status = 'SUCCESS',
+                geocode_source = 'kakao_cache',
+                geocode_updated_at = NOW()
+            WHERE address_full = :addressFull
+              AND (x IS NULL OR y IS NULL)
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> fillCoordinatesByAddress(@Param("addressFull") String addressFull,
+                                 @Param("x") double x,
+                                 @Param("y") double y);
+
+    // 좌표 없는 매물 재시도 대상으로 되돌림 (FAILED, 시도 횟수 초과 포함)
+    @Modifying
+    @Query(value = """
+            UPDATE rooms
+            SET geocode_status = 'PENDING', geocode_attempts = 0
+            WHERE (x IS NULL OR y IS NULL)
+              AND (geocode_status <> 'PENDING' OR geocode_attempts >= :maxAttempts)
+            """, nativeQuery = true)
+    int requeueRoomsWithoutCoordinates(@Param("maxAttempts") int maxAttempts);
+
     // 좌표값이 비어있거나 0인 매물 조회
     @Query("SELECT r FROM RoomEntity r WHERE (r.x IS NULL OR r.x = 0) OR (r.y IS NULL OR r.y = 0)")
     List<RoomEntity> findRoomsWithoutCoordinates();
+
+    // 공간 인덱스 적재용 - 필요한 컬럼만 (id, 위도, 경도, 구, 동, 전월세, 보증금, 월세)
+    @Query("SELECT r.id, r.y, r.x, r.gu, r.dong, r.rentType, r.deposit, r.rentFee FROM RoomEntity r " +
+            "WHERE r.x IS NOT NULL AND r.x <> 0 AND r.y IS NOT NULL AND r.y <> 0")
+    List<Object[]> findIndexableRooms();
+
+    // 공간 인덱스 부분 갱신용 - findIndexableRooms와 같은 컬럼
+    @Query("SELECT r.id, r.y, r.x, r.gu, r.dong, r.rentType, r.deposit, r.rentFee FROM RoomEntity r " +
+            "WHERE r.id IN :ids AND r.x IS NOT NULL AND r.x <> 0 AND r.y IS NOT NULL AND r.y <> 0")
+    List<Object[]> findIndexableRoomsByIds(@Param("ids") Collection<Long> ids);
+
+    // 구/동 + 전월세 + 예산 조건 매물 중 기준점에서 가까운 순 k개 (PostGIS KNN, GiST 인덱스 사용)
+    @Query(value = """
+            SELECT r.id AS id, r.y AS lat, r.x AS lng,
+                   ST_Distance(r.geog, CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography)) AS distanceM
+            FROM rooms r
+            WHERE r.gu = :gu
+              AND r.dong = :dong
+              AND r.rent_type = :rentType
+              AND r.geog IS NOT NULL
+              AND r.deposit <= :maxDeposit
+              AND (CAST(:maxRentFee AS double precision) IS NULL OR r.rent_fee <= :maxRentFee)
+            ORDER BY r.geog <-> CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography)
+            LIMIT :k
+            """, nativeQuery = true)
+    List<NearbyRoom> findNearestWithinBudget(@Param("gu") String gu,
+                                             @Param("dong") String dong,
+                                             @Param("rentType") String rentType,
+                                             @Param("maxDeposit") double maxDeposit,
+                                             @Param("maxRentFee") Double maxRentFee,
+                                             @Param("lat") double lat,
+                                             @Param("lng") double lng,
+                                             @Param("k") int k);
+
+    // 기준점 반경(m) 내 매물 (가까운 순)
+    @Query(value = """
+            SELECT r.id AS id, r.y AS lat, r.x AS lng,
+                   ST_Distance(r.geog, CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography)) AS distanceM
+            FROM rooms r
+            WHERE r.geog IS NOT NULL
+              AND ST_DWithin(r.geog, CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography), :radiusM)
+            ORDER BY distanceM
+            """, nativeQuery = true)
+    List<NearbyRoom> findWithinRadius(@Param("lat") double lat,
+                                      @Param("lng") double lng,
+                                      @Param("radiusM") double radiusM);
 }
@@ -0,0 +1,41 @@
+package com.example.seoulapi.repository;
+
+import com.example.seoulapi.dto.RoomSearchCondition;
+import com.example.seoulapi.model.RoomEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+// 매물 검색 조건 -> JPA Specification (값이 있는 조건만 WHERE에 포함)
+public class RoomSpecifications {
+
+    public static Specification<RoomEntity> search(RoomSearchCondition condition) {
+        return Specification.allOf(
+                equal("gu", condition.getGu()),
+                equal("dong", condition.getDong()),
+                equal("rentType", condition.getRentType()),
+                between("deposit", condition.getMinDeposit(), condition.getMaxDeposit()),
+                between("rentFee", condition.getMinRentFee(), condition.getMaxRentFee()),
+                between("area", condition.getMinArea(), condition.getMaxArea()),
+                between("floor", condition.getMinFloor(), condition.getMaxFloor()),
+                between("archYear", condition.getMinArchYear(), condition.getMaxArchYear()),
+                idAfter(condition.getCursor())
+        );
+    }
+
+    // keyset 페이지 - cursor 다음 id부터
+    public static Specification<RoomEntity> idAfter(Long cursor) {
+        return (root, query, cb) -> cursor == null ? null : cb.greaterThan(root.get("id"), cursor);
+    }
+
+    private static Specification<RoomEntity> equal(String field, String value) {
+        return (root, query, cb) -> value == null || value.isBlank() ? null : cb.equal(root.get(field), value);
+    }
+
+    private static <T extends Comparable<? super T>> Specification<RoomEntity> between(String field, T min, T max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) return cb.between(root.get(field), min, max);
+            if (min != null) return cb.greaterThanOrEqualTo(root.get(field), min);
+            if (max != null) return cb.lessThanOrEqualTo(root.get(field), max);
+            return null;
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.seoulapi.repository;
+
+import com.example.seoulapi.model.SyncWatermarkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+// 증분 동기화 기준점 DB 접근
+@Repository
+public interface SyncWatermarkRepository extends JpaRepository<SyncWatermarkEntity, Integer> {
+}
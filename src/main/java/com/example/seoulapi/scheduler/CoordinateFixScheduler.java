@@ -0,0 +1,20 @@
+package com.example.seoulapi.scheduler;
+
+import com.example.seoulapi.service.GeocodeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// 좌표 미변환(PENDING) 매물 주기적 처리 - 주소 캐시 백필 후 워커 시작, 워커가 이미 돌고 있으면 건너뜀
+@Component
+@RequiredArgsConstructor
+public class CoordinateFixScheduler {
+
+    private final GeocodeService geocodeService;
+
+    @Scheduled(initialDelayString = "${geocode.scheduler.initial-delay-ms:60000}",
+            fixedDelayString = "${geocode.scheduler.interval-ms:600000}")
+    public void fixPendingCoordinates() {
+        geocodeService.backfillAndStart();
+    }
+}
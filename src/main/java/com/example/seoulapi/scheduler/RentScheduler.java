@@ -0,0 +1,22 @@
+package com.example.seoulapi.scheduler;
+
+import com.example.seoulapi.service.RentIngestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// 최근 계약 증분 갱신 - 마지막 동기화 이후 새로 올라온 계약만 반영
+@Component
+@RequiredArgsConstructor
+public class RentScheduler {
+
+    private final RentIngestionService rentIngestionService;
+
+    @Scheduled(cron = "${seoul.sync.cron:0 0 4 * * *}")
+    public void updateRecentContracts() {
+        Map<String, Object> result = rentIngestionService.syncRecentContracts();
+        System.out.println("[RentScheduler] 증분 갱신 결과: " + result);
+    }
+}
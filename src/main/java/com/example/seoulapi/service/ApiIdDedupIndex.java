@@ -0,0 +1,135 @@
+package com.example.seoulapi.service;
+
+import com.example.seoulapi.repository.RoomRepository;
+import com.example.seoulapi.util.LongHashSet;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// 적재 중복 체크용 apiId 인덱스 - 문자열 대신 64bit 지문(fingerprint)만 보관, 증분 갱신
+@Component
+public class ApiIdDedupIndex {
+
+    private final RoomRepository roomRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    private final LongHashSet fingerprints = new LongHashSet(1 << 16);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded = false;
+
+    public ApiIdDedupIndex(RoomRepository roomRepository, PlatformTransactionManager transactionManager) {
+        this.roomRepository = roomRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    // 이미 DB에 있는 apiId인지 (최초 호출 시 DB에서 지문 적재)
+    public boolean contains(String apiId) {
+        ensureLoaded();
+
+        long fingerprint = fingerprint(apiId);
+        lock.readLock().lock();
+        try {
+            return fingerprints.contains(fingerprint);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 저장된 apiId 반영 - 트랜잭션 중이면 커밋 후 반영 (롤백 시 누락 방지)
+    public void addAll(Collection<String> apiIds) {
+        long[] values = apiIds.stream().mapToLong(ApiIdDedupIndex::fingerprint).toArray();
+
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (long value : values) {
+                    fingerprints.add(value);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void clear() {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                fingerprints.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return fingerprints.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+
+        synchronized (this) {
+            if (loaded) return;
+
+            long start = System.currentTimeMillis();
+            // 전체 apiId를 리스트로 만들지 않고 스트리밍으로 지문만 적재
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<String> apiIds = roomRepository.streamAllApiIds()) {
+                    lock.writeLock().lock();
+                    try {
+                        apiIds.forEach(apiId -> fingerprints.add(fingerprint(apiId)));
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+            });
+
+            loaded = true;
+            System.out.println("[ApiIdDedupIndex] 적재 완료: " + size() + "건 ("
+                    + (System.currentTimeMillis() - start) + "ms)");
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // 64bit FNV-1a + splitmix64 마무리 (충돌 확률 천만 건 기준 약 1e-6 수준)
+    static long fingerprint(String apiId) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : apiId.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 30;
+        hash *= 0xbf58476d1ce4e5b9L;
+        hash ^= hash >>> 27;
+        hash *= 0x94d049bb133111ebL;
+        hash ^= hash >>> 31;
+        return hash;
+    }
+}
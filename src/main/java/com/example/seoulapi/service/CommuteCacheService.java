@@ -0,0 +1,148 @@
+package com.example.seoulapi.service;
+
+import com.example.seoulapi.model.CommuteCacheEntity;
+import com.example.seoulapi.model.CommuteMethod;
+import com.example.seoulapi.model.CommuteOrigin;
+import com.example.seoulapi.model.CommuteResult;
+import com.example.seoulapi.repository.CommuteCacheRepository;
+import com.example.seoulapi.util.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// 통근시간 2단 캐시 - 1차 인메모리 LRU, 2차 Postgres(commute_cache)
+@Service
+public class CommuteCacheService {
+
+    public static final String MODE_TRANSIT = "TRANSIT";
+    public static final String MODE_DRIVING = "DRIVING";
+
+    // 출발지/목적지 좌표 양자화 단위 (약 100m)
+    private static final double CELL_DEGREES = 0.001;
+
+    private final CommuteCacheRepository commuteCacheRepository;
+    private final LruCache<String, CommuteResult> memoryCache;
+
+    @Value("${commute.cache.ttl.transit-hours:168}")
+    private long transitTtlHours;
+
+    @Value("${commute.cache.ttl.driving-hours:24}")
+    private long drivingTtlHours;
+
+    public CommuteCacheService(CommuteCacheRepository commuteCacheRepository,
+                               @Value("${commute.cache.max-size:50000}") int maxSize) {
+        this.commuteCacheRepository = commuteCacheRepository;
+        this.memoryCache = new LruCache<>(maxSize);
+    }
+
+    // 출발지 중 캐시에 있는 것만 반환 (key: 매물 id)
+    public Map<Long, CommuteResult> getAll(
+            List<CommuteOrigin> origins, double destLat, double destLng, String mode
+    ) {
+        String destCell = toDestCell(destLat, destLng);
+        Map<Long, CommuteResult> found = new HashMap<>();
+        List<String> dbKeys = new ArrayList<>();
+
+        // 1. 메모리 캐시
+        for (CommuteOrigin origin : origins) {
+            String key = cacheKey(origin, destCell, mode);
+            CommuteResult cached = memoryCache.get(key);
+            if (cached != null) {
+                found.put(origin.id(), cached);
+            } else {
+                dbKeys.add(key);
+            }
+        }
+
+        if (dbKeys.isEmpty()) return found;
+
+        // 2. DB 캐시 (만료 안 된 것만, 메모리로 승격)
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (CommuteCacheEntity entity : commuteCacheRepository.findAllById(dbKeys)) {
+                if (entity.getExpiresAt() == null || entity.getExpiresAt().isBefore(now)) continue;
+
+                CommuteResult result = toResult(entity);
+                if (result == null) continue;
+
+                long ttlMillis = Duration.between(now, entity.getExpiresAt()).toMillis();
+                memoryCache.put(entity.getCacheKey(), result, ttlMillis);
+                found.put(result.id(), result);
+            }
+        } catch (Exception e) {
+            // 캐시 장애가 추천 자체를 막으면 안 됨
+            System.err.println("[CommuteCacheService] DB 캐시 조회 실패: " + e.getMessage());
+        }
+
+        return found;
+    }
+
+    // 외부 API로 계산된 결과 저장 - 계산에 쓴 출발지 좌표로 key 생성 (출발지 목록에 없는 결과는 저장 안 함)
+    @Transactional
+    public void putAll(List<CommuteOrigin> origins, List<CommuteResult> results,
+                       double destLat, double destLng, String mode) {
+        if (results.isEmpty()) return;
+
+        Map<Long, CommuteOrigin> originById = new HashMap<>(origins.size() * 2);
+        for (CommuteOrigin origin : origins) {
+            originById.put(origin.id(), origin);
+        }
+
+        String destCell = toDestCell(destLat, destLng);
+        long ttlHours = MODE_DRIVING.equals(mode) ? drivingTtlHours : transitTtlHours;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusHours(ttlHours);
+
+        for (CommuteResult result : results) {
+            CommuteOrigin origin = originById.get(result.id());
+            if (origin == null) continue;
+            String key = cacheKey(origin, destCell, mode);
+
+            memoryCache.put(key, result, Duration.ofHours(ttlHours).toMillis());
+            commuteCacheRepository.upsert(
+                    key, result.id(), destCell, mode,
+                    result.durationMin(), result.method().name(), now, expiresAt
+            );
+        }
+    }
+
+    // 만료된 DB 캐시 정리
+    @Scheduled(fixedDelayString = "${commute.cache.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = commuteCacheRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            System.out.println("[CommuteCacheService] 만료 캐시 삭제: " + deleted + "건");
+        }
+    }
+
+    // 좌표 -> 셀 문자열 ("위도셀:경도셀")
+    private String toDestCell(double lat, double lng) {
+        long latCell = (long) Math.floor(lat / CELL_DEGREES);
+        long lngCell = (long) Math.floor(lng / CELL_DEGREES);
+        return latCell + ":" + lngCell;
+    }
+
+    // 매물 좌표 셀도 key에 포함 - 재지오코딩으로 좌표가 바뀐 매물은 이전 결과를 쓰지 않음 (이전 항목은 TTL로 정리)
+    private String cacheKey(CommuteOrigin origin, String destCell, String mode) {
+        return origin.id() + ":" + toDestCell(origin.lat(), origin.lng()) + ":" + destCell + ":" + mode;
+    }
+
+    // 저장된 method 값이 알 수 없는 값이면 캐시 미적중으로 처리
+    private CommuteResult toResult(CommuteCacheEntity entity) {
+        if (entity.getRoomId() == null || entity.getDurationMin() == null || entity.getMethod() == null) {
+            return null;
+        }
+        try {
+            return new CommuteResult(entity.getRoomId(), entity.getDurationMin(),
+                    CommuteMethod.valueOf(entity.getMethod()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.seoulapi.service;
+
+import com.example.seoulapi.model.CommuteMethod;
+import com.example.seoulapi.model.CommuteResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// 직선거리 기반 통근시간 하한 - 어떤 경로로도 제한시간 안에 못 가는 후보는 외부 API 호출 전에 제외
+@Component
+public class CommuteLowerBound {
+
+    // 너무 가까운 출발지는 속도 추정이 불안정해서 학습에서 제외
+    private static final double MIN_OBSERVE_DISTANCE_KM = 1.0;
+
+    private final boolean enabled;
+    private final int minSamples;
+    private final double margin;
+
+    private final ModeBound transit;
+    private final ModeBound driving;
+
+    public CommuteLowerBound(
+            @Value("${commute.prune.enabled:true}") boolean enabled,
+            @Value("${commute.prune.max-speed-kmh.transit:60}") double transitMaxKmh,
+            @Value("${commute.prune.max-speed-kmh.driving:90}") double drivingMaxKmh,
+            @Value("${commute.prune.min-samples:200}") int minSamples,
+            @Value("${commute.prune.learned-margin:0.3}") double margin
+    ) {
+        this.enabled = enabled;
+        this.minSamples = minSamples;
+        this.margin = margin;
+        this.transit = new ModeBound(transitMaxKmh);
+        this.driving = new ModeBound(drivingMaxKmh);
+    }
+
+    // 하한이 제한시간을 넘는 후보 제외 (후보 순서 유지)
+    public List<RoomSpatialIndex.Neighbor> prune(
+            List<RoomSpatialIndex.Neighbor> candidates, String mode, int limitMin
+    ) {
+        ModeBound bound = bound(mode);
+        bound.requests.increment();
+        bound.candidates.add(candidates.size());
+        if (!enabled) return candidates;
+
+        double speed = bound.speedKmPerMin();
+        List<RoomSpatialIndex.Neighbor> kept = new ArrayList<>(candidates.size());
+        for (RoomSpatialIndex.Neighbor candidate : candidates) {
+            // 하한은 내림 - 경계에 걸친 후보는 남김
+            if (Math.floor(candidate.distanceKm() / speed) <= limitMin) {
+                kept.add(candidate);
+            }
+        }
+
+        bound.pruned.add(candidates.size() - kept.size());
+        return kept;
+    }
+
+    // 실제 경로 결과로 최대 속도 학습 (fallback/경로 없음은 제외)
+    public void observe(String mode, double distanceKm, CommuteResult result) {
+        if (result.method() != CommuteMethod.TRANSIT && result.method() != CommuteMethod.DRIVING) return;
+        if (distanceKm < MIN_OBSERVE_DISTANCE_KM || result.durationMin() <= 0) return;
+
+        ModeBound bound = bound(mode);
+        bound.maxObservedKmPerMin.accumulate(distanceKm / result.durationMin());
+        bound.samples.increment();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put(CommuteCacheService.MODE_TRANSIT, transit.toStatus());
+        status.put(CommuteCacheService.MODE_DRIVING, driving.toStatus());
+        return status;
+    }
+
+    private ModeBound bound(String mode) {
+        return CommuteCacheService.MODE_DRIVING.equals(mode) ? driving : transit;
+    }
+
+    // 교통수단별 속도 상한 + 통계
+    private class ModeBound {
+        private final double configuredKmPerMin;
+
+        // 관측된 최대 직선거리 속도 (km/분)
+        private final DoubleAccumulator maxObservedKmPerMin = new DoubleAccumulator(Math::max, 0);
+        private final LongAdder samples = new LongAdder();
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder candidates = new LongAdder();
+        private final LongAdder pruned = new LongAdder();
+
+        ModeBound(double maxKmh) {
+            this.configuredKmPerMin = maxKmh / 60.0;
+        }
+
+        // 표본이 충분하면 관측 최대 속도 + 여유분 (설정 상한보다 빠르게는 안 잡음)
+        double speedKmPerMin() {
+            if (samples.sum() < minSamples) return configuredKmPerMin;
+
+            double learned = maxObservedKmPerMin.get() * (1 + margin);
+            return learned > 0 ? Math.min(configuredKmPerMin, learned) : configuredKmPerMin;
+        }
+
+        Map<String, Object> toStatus() {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("configuredMaxKmh", configuredKmPerMin * 60);
+            status.put("effectiveMaxKmh", speedKmPerMin() * 60);
+            status.put("observedMaxKmh", maxObservedKmPerMin.get() * 60);
+            status.put("samples", samples.sum());
+            status.put("requests", requests.sum());
+            status.put("candidates", candidates.sum());
+            status.put("savedCalls", pruned.sum());  // 출발지 단위 (자차는 배치 요청 안의 출발지 수)
+            return status;
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.example.seoulapi.service;
 
+import com.example.seoulapi.model.CommuteMethod;
+import com.example.seoulapi.model.CommuteOrigin;
+import com.example.seoulapi.model.CommuteResult;
+import com.example.seoulapi.model.DrivingSummary;
+import com.example.seoulapi.util.FanOutExecutor;
+import com.example.seoulapi.util.HttpCallTimeout;
 import com.example.seoulapi.util.KakaoApiUtil;
 import com.example.seoulapi.util.ODsayApiUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,160 +23,325 @@ public class CommuteService {
 
     private final KakaoApiUtil kakaoApiUtil;
     private final ODsayApiUtil odsayApiUtil;
+    private final CommuteCacheService commuteCacheService;
+    private final FanOutExecutor fanOutExecutor;
 
-    // 자차 - 단일 경로 반복 호출 방식
-    public List<Map<String, Object>> calculateDrivingInfo(
-            List<Map<String, Object>> origins, double destLng, double destLat
-    ) {
-        List<Map<String, Object>> results = new ArrayList<>();
+    // 카카오 다중 출발지 길찾기 1회 요청당 최대 출발지 수
+    private static final int DRIVING_BATCH_SIZE = 30;
 
-        for (Map<String, Object> origin : origins) {
+    // 단일 지점 거리 조회 시 다중 출발지 API에 넘기는 key
+    private static final long SINGLE_ORIGIN_ID = 0L;
 
-            String id = (String) origin.get("id");
-            double lat = (double) origin.get("lat");
-            double lng = (double) origin.get("lng");
+    // 대중교통 요약 1회 요청의 ODsay 대기 마감 (이후 미응답분은 취소하고 fallback)
+    @Value("${commute.transit.deadline-ms:1200}")
+    private long transitDeadlineMs;
 
-            // 단일 출발지 경로 API 호출
-            Map<String, Integer> info =
-                    kakaoApiUtil.getDrivingSingle(lng, lat, destLng, destLat);
+    // 마감 후 도보 fallback 거리 조회(카카오)에 쓰는 시간 - 넘기면 직선거리로 추정
+    @Value("${commute.transit.fallback-ms:300}")
+    private long transitFallbackMs;
 
-            // 경로 없으면 스킵
-            if (info == null) continue;
+    // 자차 - 다중 출발지 API 배치 병렬 호출 방식
+    public List<CommuteResult> calculateDrivingInfo(
+            List<CommuteOrigin> origins, double destLng, double destLat
+    ) {
+        return calculateDrivingInfo(origins, destLng, destLat, result -> {});
+    }
 
-            int durationMin = info.get("duration") / 60;
+    // 결과가 확정되는 대로 onResult 호출 (캐시 적중분은 즉시, 나머지는 배치 응답 단위)
+    // onResult는 fan-out 스레드에서도 불리므로 가볍고 스레드 안전해야 함 (경로 없는 매물은 호출 안 됨)
+    public List<CommuteResult> calculateDrivingInfo(
+            List<CommuteOrigin> origins, double destLng, double destLat, Consumer<CommuteResult> onResult
+    ) {
+        List<CommuteResult> results = new ArrayList<>(origins.size());
+
+        // 캐시에 있는 매물은 API 호출 생략
+        List<CommuteOrigin> misses =
+                resolveFromCache(origins, destLat, destLng, CommuteCacheService.MODE_DRIVING, results);
+        results.forEach(onResult);
+
+        // 1. 30개 단위로 나눠 다중 출발지 API 동시 호출 후 병합
+        List<CompletableFuture<Map<Long, DrivingSummary>>> batchFutures = new ArrayList<>();
+        for (int from = 0; from < misses.size(); from += DRIVING_BATCH_SIZE) {
+            List<CommuteOrigin> chunk =
+                    misses.subList(from, Math.min(from + DRIVING_BATCH_SIZE, misses.size()));
+            batchFutures.add(fanOutExecutor.supplyAsync(
+                    () -> kakaoApiUtil.getDrivingTimes(chunk, destLng, destLat))
+                    .exceptionally(ex -> null)   // 풀 포화로 거부 -> 경로 못 받은 것으로
+                    .thenApply(batch -> {
+                        if (batch == null) return Map.of();
+                        for (CommuteOrigin origin : chunk) {
+                            DrivingSummary summary = batch.get(origin.id());
+                            if (summary != null) onResult.accept(drivingResult(origin.id(), summary));
+                        }
+                        return batch;
+                    }));
+        }
 
-            Map<String, Object> map = new HashMap<>();
-            map.put("id", id);
-            map.put("duration_min", durationMin);
-            map.put("method", "DRIVING");
+        Map<Long, DrivingSummary> merged = new HashMap<>();
+        for (CompletableFuture<Map<Long, DrivingSummary>> future : batchFutures) {
+            Map<Long, DrivingSummary> batch = future.join();
+            if (batch != null) merged.putAll(batch);
+        }
 
-            results.add(map);
+        List<CommuteResult> computed = new ArrayList<>(misses.size());
+        List<CommuteOrigin> leftovers = new ArrayList<>();
+        for (CommuteOrigin origin : misses) {
+            DrivingSummary summary = merged.get(origin.id());
+            if (summary == null) {
+                leftovers.add(origin);
+                continue;
+            }
+            computed.add(drivingResult(origin.id(), summary));
         }
 
+        // 2. 배치에서 경로를 못 받은 출발지(반경 10km 밖 등)만 단일 경로 API로 보완
+        List<CompletableFuture<CommuteResult>> singleFutures = leftovers.stream()
+                .map(origin -> fanOutExecutor.supplyAsync(() -> {
+
+                    // 단일 출발지 경로 API 호출
+                    DrivingSummary summary =
+                            kakaoApiUtil.getDrivingSingle(origin.lng(), origin.lat(), destLng, destLat);
+
+                    // 경로 없으면 스킵
+                    if (summary == null) return null;
+
+                    CommuteResult result = drivingResult(origin.id(), summary);
+                    onResult.accept(result);
+                    return result;
+                }).exceptionally(ex -> null))
+                .collect(Collectors.toList());
+
+        singleFutures.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .forEach(computed::add);
+
+        saveToCache(misses, computed, destLat, destLng, CommuteCacheService.MODE_DRIVING);
+        results.addAll(computed);
         return results;
     }
 
+    private CommuteResult drivingResult(long id, DrivingSummary summary) {
+        return new CommuteResult(id, summary.durationSeconds() / 60, CommuteMethod.DRIVING);
+    }
+
     // 대중교통 요약
-    public List<Map<String, Object>> calculateTransitSummary(
-            List<Map<String, Object>> origins, double destLng, double destLat
+    public List<CommuteResult> calculateTransitSummary(
+            List<CommuteOrigin> origins, double destLng, double destLat
     ) {
+        return calculateTransitSummary(origins, destLng, destLat, result -> {});
+    }
+
+    // 매물별 결과가 나오는 대로 onResult 호출 - 캐시 적중분은 즉시, fallback은 마감 후 한꺼번에
+    // onResult는 fan-out 스레드에서도 불리므로 가볍고 스레드 안전해야 함
+    public List<CommuteResult> calculateTransitSummary(
+            List<CommuteOrigin> origins, double destLng, double destLat, Consumer<CommuteResult> onResult
+    ) {
+        // 요청 전체에 마감 하나 (호출별 타이머 X) - 캐시 조회 시간도 포함
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(transitDeadlineMs);
+
+        List<CommuteResult> cachedResults = new ArrayList<>();
+        List<CommuteOrigin> misses =
+                resolveFromCache(origins, destLat, destLng, CommuteCacheService.MODE_TRANSIT, cachedResults);
+        cachedResults.forEach(onResult);
+
+        if (misses.isEmpty()) return cachedResults;
+
+        // 1. ODsay 호출 - 경로 없음/오류는 null (fallback은 여기서 계산하지 않음), 풀 포화로 거부되면 마감 초과와 같이 fallback
+        // cancel(true)로는 진행 중인 HTTP 호출이 끊기지 않으므로 응답 대기 한도 자체를 남은 시간으로
+        List<CompletableFuture<CommuteResult>> calls = new ArrayList<>(misses.size());
+        List<CompletableFuture<CommuteResult>> delivered = new ArrayList<>(misses.size());
+        for (CommuteOrigin origin : misses) {
+            CompletableFuture<CommuteResult> call = fanOutExecutor.supplyAsync(() -> {
+                long remainingMs = remainingMillis(deadline);
+                if (remainingMs <= 0) return null;  // 큐에서 기다리다 마감 지남
+                try {
+                    Integer transitTime = HttpCallTimeout.within(remainingMs, () -> odsayApiUtil.getTransitSingle(
+                            origin.lat(), origin.lng(), destLat, destLng
+                    ));
+                    if (transitTime != null) {
+                        return new CommuteResult(origin.id(), transitTime, CommuteMethod.TRANSIT);
+                    }
+                } catch (Exception ignored) {}
+                return null;
+            });
+            calls.add(call);
+            delivered.add(call.thenApply(info -> {
+                if (info != null) onResult.accept(info);
+                return info;
+            }));
+        }
+
+        // 2. 전부 끝나거나 마감될 때까지만 대기
+        try {
+            long remaining = deadline - System.nanoTime();
+            CompletableFuture.allOf(delivered.toArray(new CompletableFuture[0]))
+                    .get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException ignored) {
+            // 미완료/실패분은 아래에서 fallback
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // 3. 마감까지 못 받은 호출은 취소 - 아직 큐에서 대기 중인 호출은 실행되지 않음
+        List<CommuteResult> result = new ArrayList<>(origins.size());
+        List<CommuteResult> transit = new ArrayList<>(misses.size());
+        List<CommuteOrigin> needFallback = new ArrayList<>();
+        int abandoned = 0;
+        for (int i = 0; i < misses.size(); i++) {
+            CompletableFuture<CommuteResult> call = calls.get(i);
+            if (!call.isDone() && call.cancel(true)) abandoned++;
+
+            CommuteResult info = null;
+            if (!call.isCancelled()) {
+                try {
+                    // 호출은 끝났고 onResult만 남은 경우 - 잠깐 기다려 전송 순서 보장
+                    info = delivered.get(i).join();
+                } catch (CompletionException | CancellationException ignored) {}
+            }
+
+            if (info != null) {
+                transit.add(info);
+            } else {
+                needFallback.add(misses.get(i));
+            }
+        }
+        if (abandoned > 0) {
+            System.out.println("[CommuteService] ODsay 마감(" + transitDeadlineMs + "ms) 초과 취소: " + abandoned + "건");
+        }
 
-        ExecutorService executor = Executors.newFixedThreadPool(20);
-
-        List<CompletableFuture<Map<String, Object>>> futures =
-                origins.stream()
-                        .map(origin -> CompletableFuture.supplyAsync(() -> {
-
-                                            String id = (String) origin.get("id");
-                                            double lat = (double) origin.get("lat");
-                                            double lng = (double) origin.get("lng");
-
-                                            try {
-                                                Integer transitTime = odsayApiUtil.getTransitSingle(
-                                                        lat, lng, destLat, destLng
-                                                );
-
-                                                if (transitTime != null) {
-                                                    Map<String, Object> info = new HashMap<>();
-                                                    info.put("id", id);
-                                                    info.put("duration_min", transitTime);
-                                                    info.put("method", "TRANSIT");
-                                                    return info;
-                                                }
-
-                                            } catch (Exception ignored) {}
-
-                                            // 1. fallback 수행 전 직선거리 계산
-                                            double straightKm = getDistance(lat, lng, destLat, destLng);
-
-                                            // 2. 직선거리 > 1.5km 인 경우 도보 불가 -> 통근 불가 처리
-                                            if (straightKm > 1.5) {
-                                                Map<String, Object> fail = new HashMap<>();
-                                                fail.put("id", id);
-                                                fail.put("duration_min", Integer.MAX_VALUE); // 필터링에서 제외
-                                                fail.put("method", "NO_PATH");
-                                                return fail;
-                                            }
-
-                                            // 3. 1.5km 이하인 경우 WALK fallback 실행
-                                            Map<String, Object> fallback = new HashMap<>();
-                                            fallback.put("id", id);
-                                            fallback.put("duration_min", drivingToWalkingFallback(lat, lng, destLat, destLng));
-                                            fallback.put("method", "WALK_FALLBACK");
-                                            return fallback;
-
-
-                                        }, executor)
-                                        .completeOnTimeout(
-                                                fallbackMap(origin, destLat, destLng),
-                                                1200,
-                                                TimeUnit.MILLISECONDS
-                                        )
-                        )
-                        .collect(Collectors.toList());
-
-        List<Map<String, Object>> result =
-                futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
-
-        executor.shutdown();
+        // 4. 경로 없음/마감 초과분만 fallback 계산 (도보 후보는 카카오 다중 출발지 호출, fallback-ms 안에서만)
+        long fallbackDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(transitFallbackMs);
+        List<CommuteResult> fallbacks = fallbackResults(needFallback, destLat, destLng, fallbackDeadline);
+        fallbacks.forEach(onResult);
+
+        result.addAll(transit);
+        result.addAll(fallbacks);
+
+        // 실제 ODsay 응답(TRANSIT)만 캐시 - fallback은 타임아웃 영향이 있어 제외
+        saveToCache(misses, transit, destLat, destLng, CommuteCacheService.MODE_TRANSIT);
+
+        result.addAll(cachedResults);
         return result;
     }
 
-    // 도보 fallback 처리
-    private int drivingToWalkingFallback(double lat, double lng, double destLat, double destLng) {
+    // 캐시 적중분은 hits에 담고, 미적중 출발지만 반환
+    private List<CommuteOrigin> resolveFromCache(
+            List<CommuteOrigin> origins, double destLat, double destLng,
+            String mode, List<CommuteResult> hits
+    ) {
+        Map<Long, CommuteResult> cached =
+                commuteCacheService.getAll(origins, destLat, destLng, mode);
 
-        Map<String, Object> origin = Map.of(
-                "id", "fallback",
-                "lat", lat,
-                "lng", lng
-        );
+        if (cached.isEmpty()) return origins;
+
+        List<CommuteOrigin> misses = new ArrayList<>(origins.size() - cached.size());
+        for (CommuteOrigin origin : origins) {
+            CommuteResult entry = cached.get(origin.id());
+            if (entry == null) {
+                misses.add(origin);
+            } else {
+                hits.add(entry);
+            }
+        }
+        return misses;
+    }
 
-        // 1. 카카오 자차 API 호출해 거리 받기
-        Map<String, Map<String, Integer>> data =
-                kakaoApiUtil.getDrivingTimes(List.of(origin), destLng, destLat);
+    private void saveToCache(List<CommuteOrigin> origins, List<CommuteResult> results,
+                             double destLat, double destLng, String mode) {
+        try {
+            commuteCacheService.putAll(origins, results, destLat, destLng, mode);
+        } catch (Exception e) {
+            // 캐시 저장 실패는 응답에 영향 주지 않음
+            System.err.println("[CommuteService] 통근시간 캐시 저장 실패: " + e.getMessage());
+        }
+    }
 
-        if (data == null || data.isEmpty()) {
+    // 도보 fallback 처리 - 카카오 자차 경로 거리 -> 도보 소요시간(분)
+    private int walkingMinutes(DrivingSummary summary, double lat, double lng, double destLat, double destLng) {
+        if (summary == null) {
             // 거리 가져오지 못하는 경우엔 직선거리로 처리(최악의 경우)
             double straight = getDistance(lat, lng, destLat, destLng) * 1000; // m
             return (int) Math.min(straight / 80.0, 20);
         }
 
-        int distanceMeters = data.get("fallback").get("distance");  // m
+        int distanceMeters = summary.distanceMeters();  // m
 
         // 2. 도보 속도 기준 계산 (80m/min)
         double walking = distanceMeters / 80.0;
 
         // 20분을 넘으면 도보 불가 처리
         if (walking > 20) {
-            return Integer.MAX_VALUE;
+            return CommuteResult.UNREACHABLE;
         }
 
         return (int) Math.round(walking);
     }
 
-    private Map<String, Object> fallbackMap(Map<String, Object> origin, double destLat, double destLng) {
-        String id = (String) origin.get("id");
-        double lat = (double) origin.get("lat");
-        double lng = (double) origin.get("lng");
+    private static long remainingMillis(long deadlineNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    }
 
-        double straightKm = getDistance(lat, lng, destLat, destLng);
+    // ODsay 경로가 없거나 늦은 출발지 - 직선거리 1.5km 이하만 도보, 그 외 통근 불가
+    // 도보 거리는 마감 안에 받은 것만 사용, 못 받으면 직선거리로 추정
+    private List<CommuteResult> fallbackResults(
+            List<CommuteOrigin> origins, double destLat, double destLng, long deadline
+    ) {
+        List<CommuteResult> results = new ArrayList<>(origins.size());
+        List<CommuteOrigin> walkable = new ArrayList<>();
 
-        if (straightKm > 1.5) {
-            Map<String, Object> fail = new HashMap<>();
-            fail.put("id", id);
-            fail.put("duration_min", Integer.MAX_VALUE);
-            fail.put("method", "NO_PATH");
-            return fail;
+        for (CommuteOrigin origin : origins) {
+            if (getDistance(origin.lat(), origin.lng(), destLat, destLng) > 1.5) {
+                results.add(CommuteResult.noPath(origin.id()));
+            } else {
+                walkable.add(origin);
+            }
+        }
+        if (walkable.isEmpty()) return results;
+
+        // 도보 후보 거리는 다중 출발지 API로 (30개 단위 병렬, 응답 대기도 남은 시간까지만, 거부된 배치는 직선거리)
+        List<CompletableFuture<Map<Long, DrivingSummary>>> batches = new ArrayList<>();
+        for (int from = 0; from < walkable.size(); from += DRIVING_BATCH_SIZE) {
+            List<CommuteOrigin> chunk = walkable.subList(from, Math.min(from + DRIVING_BATCH_SIZE, walkable.size()));
+            batches.add(fanOutExecutor.supplyAsync(() -> {
+                long remainingMs = remainingMillis(deadline);
+                if (remainingMs <= 0) return Map.<Long, DrivingSummary>of();
+                return HttpCallTimeout.within(remainingMs,
+                        () -> kakaoApiUtil.getDrivingTimes(chunk, destLng, destLat));
+            }));
+        }
+        try {
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]))
+                    .get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException ignored) {
+            // 못 받은 배치는 직선거리 추정
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
 
-        Map<String, Object> fallback = new HashMap<>();
-        fallback.put("id", id);
-        fallback.put("duration_min", drivingToWalkingFallback(lat, lng, destLat, destLng));
-        fallback.put("method", "WALK_FALLBACK");
-        return fallback;
-    }
+        Map<Long, DrivingSummary> distances = new HashMap<>();
+        for (CompletableFuture<Map<Long, DrivingSummary>> batch : batches) {
+            if (batch.isDone() && !batch.isCompletedExceptionally()) {
+                distances.putAll(batch.join());
+            } else {
+                batch.cancel(true);
+            }
+        }
 
+        for (CommuteOrigin origin : walkable) {
+            int walkingMin = walkingMinutes(
+                    distances.get(origin.id()), origin.lat(), origin.lng(), destLat, destLng);
+            results.add(new CommuteResult(origin.id(), walkingMin, CommuteMethod.WALK_FALLBACK));
+        }
+        return results;
+    }
 
+    // 단일 출발지 자차 경로 summary (다중 출발지 API 1건 호출), 실패 시 null
+    private DrivingSummary drivingSummary(double lat, double lng, double destLat, double destLng) {
+        Map<Long, DrivingSummary> data = kakaoApiUtil.getDrivingTimes(
+                List.of(new CommuteOrigin(SINGLE_ORIGIN_ID, lat, lng)), destLng, destLat);
+        return data == null ? null : data.get(SINGLE_ORIGIN_ID);
+    }
 
     // 대중교통 상세
     public Map<String, Object> getTransitDetail(
@@ -180,21 +353,14 @@ public class CommuteService {
     ) {
         System.out.println("[CommuteService] method = " + method);
         // 0. 애초에 추천 단게에서 WALK_FALLBACK였던 매물인 경우 → ODsay 다시 안 부르고, "도보 OO분 이내 + 거리" 내려줌
-        if ("WALK_FALLBACK".equals(method)) {
-            int walkingMin = drivingToWalkingFallback(startLat, startLng, destLat, destLng);
-
-            // 거리 계산
-            Map<String, Object> origin = Map.of(
-                    "id", "detail",
-                    "lat", startLat,
-                    "lng", startLng
-            );
-            Map<String, Map<String, Integer>> driving =
-                    kakaoApiUtil.getDrivingTimes(List.of(origin), destLng, destLat);
+        if (CommuteMethod.WALK_FALLBACK.name().equals(method)) {
+            // 거리 계산 (도보 시간도 같은 응답으로)
+            DrivingSummary driving = drivingSummary(startLat, startLng, destLat, destLng);
+            int walkingMin = walkingMinutes(driving, startLat, startLng, destLat, destLng);
 
             int distanceMeters;
-            if (driving != null && driving.containsKey("detail")) {
-                distanceMeters = driving.get("detail").get("distance");
+            if (driving != null) {
+                distanceMeters = driving.distanceMeters();
             } else {
                 distanceMeters = (int) Math.round(
                         getDistance(startLat, startLng, destLat, destLng) * 1000
@@ -230,20 +396,13 @@ public class CommuteService {
         }
 
         // 2. ODsay 상세 경로가 없다면 → 도보로 처리
-        int walkingMin = drivingToWalkingFallback(startLat, startLng, destLat, destLng);
-
-        // 거리 계산
-        Map<String, Object> origin = Map.of(
-                "id", "detail",
-                "lat", startLat,
-                "lng", startLng
-        );
-        Map<String, Map<String, Integer>> driving =
-                kakaoApiUtil.getDrivingTimes(List.of(origin), destLng, destLat);
+        // 거리 계산 (도보 시간도 같은 응답으로)
+        DrivingSummary driving = drivingSummary(startLat, startLng, destLat, destLng);
+        int walkingMin = walkingMinutes(driving, startLat, startLng, destLat, destLng);
 
         int distanceMeters;
-        if (driving != null && driving.containsKey("detail")) {
-            distanceMeters = driving.get("detail").get("distance");
+        if (driving != null) {
+            distanceMeters = driving.distanceMeters();
         } else {
             distanceMeters = (int) Math.round(getDistance(startLat, startLng, destLat, destLng) * 1000);
         }
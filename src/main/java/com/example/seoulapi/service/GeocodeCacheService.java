@@ -0,0 +1,118 @@
+package com.example.seoulapi.service;
+
+import com.example.seoulapi.model.GeocodeCacheEntity;
+import com.example.seoulapi.repository.GeocodeCacheRepository;
+import com.example.seoulapi.util.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// 주소 단위 지오코딩 캐시 - 1차 인메모리 LRU, 2차 Postgres(geocode_cache)
+@Service
+public class GeocodeCacheService {
+
+    // 좌표 없는 주소로 확인된 경우 (카카오 재호출 x)
+    public static final double[] NOT_FOUND = new double[0];
+
+    private static final long MEMORY_TTL_MILLIS = Duration.ofHours(24).toMillis();
+
+    private final GeocodeCacheRepository geocodeCacheRepository;
+    private final LruCache<String, double[]> memoryCache;
+
+    @Value("${geocode.cache.negative-ttl-days:7}")
+    private long negativeTtlDays;
+
+    public GeocodeCacheService(GeocodeCacheRepository geocodeCacheRepository,
+                               @Value("${geocode.cache.max-size:20000}") int maxSize) {
+        this.geocodeCacheRepository = geocodeCacheRepository;
+        this.memoryCache = new LruCache<>(maxSize);
+    }
+
+    // 캐시된 좌표 {x, y} (못 찾은 주소면 NOT_FOUND), 캐시에 없으면 null
+    public double[] get(String addressKey) {
+        if (addressKey == null || addressKey.isEmpty()) return null;
+
+        double[] cached = memoryCache.get(addressKey);
+        if (cached != null) return cached;
+
+        try {
+            Optional<GeocodeCacheEntity> entity = geocodeCacheRepository.findById(addressKey);
+            if (entity.isEmpty() || isExpired(entity.get())) return null;
+
+            double[] coords = toCoords(entity.get());
+            memoryCache.put(addressKey, coords, MEMORY_TTL_MILLIS);
+            return coords;
+        } catch (Exception e) {
+            // 캐시 장애가 지오코딩 자체를 막으면 안 됨
+            System.err.println("[GeocodeCacheService] DB 캐시 조회 실패: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // 여러 주소 한 번에 조회 (백필용, 캐시에 있는 것만 반환)
+    public Map<String, double[]> getAll(Collection<String> addressKeys) {
+        Map<String, double[]> found = new HashMap<>();
+        for (GeocodeCacheEntity entity : geocodeCacheRepository.findAllById(addressKeys)) {
+            if (isExpired(entity)) continue;
+            found.put(entity.getAddressKey(), toCoords(entity));
+        }
+        return found;
+    }
+
+    // 카카오 결과 저장 (coords가 null이면 못 찾은 주소로 기록)
+    @Transactional
+    public void put(String addressKey, double[] coords) {
+        if (addressKey == null || addressKey.isEmpty()) return;
+
+        boolean found = coords != null && coords.length == 2;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = found ? null : now.plusDays(negativeTtlDays);
+
+        memoryCache.put(addressKey, found ? coords : NOT_FOUND,
+                found ? MEMORY_TTL_MILLIS : Math.min(MEMORY_TTL_MILLIS, Duration.ofDays(negativeTtlDays).toMillis()));
+        geocodeCacheRepository.upsert(
+                addressKey,
+                found ? coords[0] : null,
+                found ? coords[1] : null,
+                found, "kakao", now, expiresAt
+        );
+    }
+
+    public long getHitCount() {
+        return memoryCache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return memoryCache.getMissCount();
+    }
+
+    // 만료된 DB 캐시 정리
+    @Scheduled(fixedDelayString = "${geocode.cache.cleanup-interval-ms:86400000}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = geocodeCacheRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            System.out.println("[GeocodeCacheService] 만료 캐시 삭제: " + deleted + "건");
+        }
+    }
+
+    public static boolean isNotFound(double[] coords) {
+        return coords != null && coords.length == 0;
+    }
+
+    private boolean isExpired(GeocodeCacheEntity entity) {
+        return entity.getExpiresAt() != null && entity.getExpiresAt().isBefore(LocalDateTime.now());
+    }
+
+    private double[] toCoords(GeocodeCacheEntity entity) {
+        if (!Boolean.TRUE.equals(entity.getFound()) || entity.getX() == null || entity.getY() == null) {
+            return NOT_FOUND;
+        }
+        return new double[]{entity.getX(), entity.getY()};
+    }
+}
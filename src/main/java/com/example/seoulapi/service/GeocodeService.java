@@ -2,57 +2,322 @@ package com.example.seoulapi.service;
 
 import com.example.seoulapi.model.RoomEntity;
 import com.example.seoulapi.repository.RoomRepository;
+import com.example.seoulapi.util.AddressUtil;
 import com.example.seoulapi.util.KakaoApiUtil;
-import lombok.RequiredArgsConstructor;
+import com.example.seoulapi.util.TokenBucket;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 
-// Pending 상태 매물 1건 가져와 카카오 API 호출하여 좌표 변환
+// PENDING 상태 매물 좌표 변환 - 워커 N개가 배치 단위로 선점(SKIP LOCKED)해 카카오 API 호출
 @Service
-@RequiredArgsConstructor
 public class GeocodeService {
 
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int BACKFILL_CHUNK = 500;
+
     private final RoomRepository roomRepository;
     private final KakaoApiUtil kakaoApiUtil;
+    private final RoomSpatialIndex roomSpatialIndex;
+    private final GeocodeCacheService geocodeCacheService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int workers;
+    private final int batchSize;
+    private final TokenBucket rateLimiter;   // 워커 전체가 공유하는 호출 한도
+    private final ExecutorService workerExecutor;
+
+    // 진행 상황
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong propagated = new AtomicLong();   // 같은 주소라 API 호출 없이 반영된 매물
+    private final AtomicLong kakaoCalls = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private volatile long startedAt;
+    private volatile long finishedAt;
 
+    public GeocodeService(RoomRepository roomRepository,
+                          KakaoApiUtil kakaoApiUtil,
+                          RoomSpatialIndex roomSpatialIndex,
+                          GeocodeCacheService geocodeCacheService,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${geocode.workers:4}") int workers,
+                          @Value("${geocode.batch-size:50}") int batchSize,
+                          @Value("${kakao.geocode.rate-per-second:10}") double ratePerSecond,
+                          @Value("${kakao.geocode.burst:10}") int burst) {
+        this.roomRepository = roomRepository;
+        this.kakaoApiUtil = kakaoApiUtil;
+        this.roomSpatialIndex = roomSpatialIndex;
+        this.geocodeCacheService = geocodeCacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.rateLimiter = new TokenBucket(burst, ratePerSecond);
+
+        AtomicInteger threadSeq = new AtomicInteger();
+        this.workerExecutor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "geocode-worker-" + threadSeq.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 단건 처리 (PENDING 중 attempts < 3 인 매물 하나)
     @Transactional
     public void processOnePendingRoom() {
-        // PENDING 상태 중 attempts < 3 인 매물 하나 가져오기
         Optional<RoomEntity> optionalRoom = roomRepository
-                .findTopByGeocodeStatusAndGeocodeAttemptsLessThanOrderByIdAsc("PENDING", 3);
+                .findTopByGeocodeStatusAndGeocodeAttemptsLessThanOrderByIdAsc("PENDING", MAX_ATTEMPTS);
 
         if (optionalRoom.isEmpty()) {
             return; // 처리할 것 x
         }
 
         RoomEntity room = optionalRoom.get();
+        try {
+            geocode(room);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        // 저장
+        roomRepository.save(room);
+        roomSpatialIndex.put(room);
+        applyToSameAddress(room);
+    }
+
+    // 워커 시작 - PENDING이 없을 때까지 배치 처리 후 종료 (이미 실행 중이면 false)
+    public boolean startWorkers() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        processed.set(0);
+        succeeded.set(0);
+        failed.set(0);
+        propagated.set(0);
+        kakaoCalls.set(0);
+        cacheHits.set(0);
+        startedAt = System.currentTimeMillis();
+        finishedAt = 0;
+
+        activeWorkers.set(workers);
+        for (int i = 0; i < workers; i++) {
+            workerExecutor.submit(this::runWorker);
+        }
+        System.out.println("[GeocodeService] 좌표 변환 워커 시작: " + workers + "개, 배치 " + batchSize + "건");
+        return true;
+    }
+
+    // 좌표 없는 매물 전체를 재시도 대상으로 되돌리고, 캐시로 채울 수 있는 건 채운 뒤 워커 시작
+    public boolean requeueAndStart() {
+        if (running.get()) {
+            return false;
+        }
+        Integer requeued = transactionTemplate.execute(status ->
+                roomRepository.requeueRoomsWithoutCoordinates(MAX_ATTEMPTS));
+        System.out.println("[GeocodeService] 재시도 대상으로 전환: " + requeued + "건");
+
+        backfillFromCache();
+        return startWorkers();
+    }
+
+    // 주기 실행용 - 캐시로 채울 수 있는 매물은 먼저 일괄 반영한 뒤 남은 PENDING만 워커로 처리
+    public boolean backfillAndStart() {
+        if (running.get()) {
+            return false;
+        }
+        backfillFromCache();
+        return startWorkers();
+    }
+
+    // 좌표 없는 매물 중 캐시에 주소가 있는 것은 API 호출 없이 반영 (반영 건수 반환)
+    public int backfillFromCache() {
+        long start = System.currentTimeMillis();
+        List<String> addresses = roomRepository.findAddressesWithoutCoordinates();
+
+        // 원본 주소 -> 캐시 key (정제 주소)
+        Map<String, String> keyByAddress = new HashMap<>();
+        for (String address : addresses) {
+            keyByAddress.put(address, AddressUtil.clean(address));
+        }
+
+        int updated = 0;
+        List<String> chunk = new ArrayList<>(BACKFILL_CHUNK);
+        for (Iterator<String> it = addresses.iterator(); it.hasNext(); ) {
+            chunk.add(it.next());
+            if (chunk.size() < BACKFILL_CHUNK && it.hasNext()) continue;
+
+            Map<String, double[]> cached = geocodeCacheService.getAll(
+                    chunk.stream().map(keyByAddress::get).collect(Collectors.toSet()));
+
+            List<String> current = chunk;
+            List<Long> filledIds = transactionTemplate.execute(status -> {
+                List<Long> ids = new ArrayList<>();
+                for (String address : current) {
+                    double[] coords = cached.get(keyByAddress.get(address));
+                    if (coords == null || GeocodeCacheService.isNotFound(coords)) continue;
+                    ids.addAll(roomRepository.fillCoordinatesByAddress(address, coords[0], coords[1]));
+                }
+                return ids;
+            });
+
+            // 벌크 UPDATE는 엔티티를 거치지 않으므로 반영된 매물만 공간 인덱스에 추가 (전체 재적재 x)
+            if (filledIds != null && !filledIds.isEmpty()) {
+                updated += filledIds.size();
+                roomSpatialIndex.putAll(roomRepository.findIndexableRoomsByIds(filledIds));
+            }
+            chunk = new ArrayList<>(BACKFILL_CHUNK);
+        }
+        System.out.println("[GeocodeService] 캐시 백필: 주소 " + addresses.size() + "개 중 매물 " + updated + "건 반영 ("
+                + (System.currentTimeMillis() - start) + "ms)");
+        return updated;
+    }
 
+    // 주소 -> 좌표 {x, y} (캐시 우선, 없으면 카카오 호출 후 캐시 저장), 못 찾으면 null
+    public double[] resolveCoordinates(String addressFull) throws InterruptedException {
+        String addressKey = AddressUtil.clean(addressFull);
+
+        double[] cached = geocodeCacheService.get(addressKey);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return GeocodeCacheService.isNotFound(cached) ? null : cached;
+        }
+
+        rateLimiter.acquire();
+        kakaoCalls.incrementAndGet();
+        double[] coords = kakaoApiUtil.getCoordinatesByAddressOrThrow(addressKey);
+        geocodeCacheService.put(addressKey, coords);
+        return coords;
+    }
+
+    // 진행 상황/처리량
+    public Map<String, Object> getStatus() {
+        long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+        long elapsedMs = startedAt > 0 ? end - startedAt : 0;
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("activeWorkers", activeWorkers.get());
+        status.put("processed", processed.get());
+        status.put("succeeded", succeeded.get());
+        status.put("failed", failed.get());
+        status.put("propagated", propagated.get());
+        status.put("kakaoCalls", kakaoCalls.get());
+        status.put("cacheHits", cacheHits.get());
+        status.put("elapsedMs", elapsedMs);
+        status.put("roomsPerSec", elapsedMs > 0 ? processed.get() * 1000.0 / elapsedMs : 0.0);
+        return status;
+    }
+
+    private void runWorker() {
         try {
-            // 카카오 API 호출
-            double[] coords = kakaoApiUtil.getCoordinatesByAddress(room.getAddressFull());
+            while (!Thread.currentThread().isInterrupted()) {
+                Integer claimed = transactionTemplate.execute(status -> processBatch());
+                if (claimed == null || claimed == 0) {
+                    break; // 남은 PENDING 없음
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (activeWorkers.decrementAndGet() == 0) {
+                finishedAt = System.currentTimeMillis();
+                running.set(false);
+                System.out.println("[GeocodeService] 좌표 변환 완료: " + getStatus());
+            }
+        }
+    }
+
+    // 배치 하나 선점 -> 변환 -> 트랜잭션 커밋 시 반영 (선점 건수 반환)
+    private int processBatch() {
+        List<RoomEntity> rooms = roomRepository.claimPendingBatch(MAX_ATTEMPTS, batchSize);
+
+        for (RoomEntity room : rooms) {
+            // 같은 배치 안의 같은 주소 매물은 앞에서 이미 반영됨
+            if ("SUCCESS".equals(room.getGeocodeStatus())) continue;
+
+            try {
+                geocode(room);
+            } catch (InterruptedException e) {
+                // 처리 못한 행은 PENDING 그대로 -> 커밋 시 락 해제되어 다음 실행에서 처리
+                Thread.currentThread().interrupt();
+                break;
+            }
+            roomSpatialIndex.put(room);
+            applyToSameAddress(room);
+        }
+        return rooms.size();
+    }
+
+    // 좌표/상태 갱신 (저장은 호출한 쪽 트랜잭션에서)
+    private void geocode(RoomEntity room) throws InterruptedException {
+        processed.incrementAndGet();
+
+        try {
+            double[] coords = resolveCoordinates(room.getAddressFull());
 
             if (coords != null) {
                 // 성공 시 좌표&상태 업데이트
-                room.setX(coords[0]);
-                room.setY(coords[1]);
-                room.setGeocodeStatus("SUCCESS");
-                room.setGeocodeSource("kakao");
-                room.setGeocodeUpdatedAt(LocalDateTime.now());
-            } else {
-                // 실패 시 시도 횟수만 증가
-                room.setGeocodeAttempts(room.getGeocodeAttempts() + 1);
+                setCoordinates(room, coords[0], coords[1], "kakao");
+                succeeded.incrementAndGet();
+                return;
             }
-
+        } catch (InterruptedException e) {
+            throw e;
         } catch (Exception e) {
             // API 호출 중 오류시 시도 횟수 증가
-            room.setGeocodeAttempts(room.getGeocodeAttempts() + 1);
+            System.err.println("[GeocodeService] 좌표 변환 실패: " + room.getAddressFull() + " (" + e.getMessage() + ")");
         }
 
-        // 저장
-        roomRepository.save(room);
+        // 실패 시 시도 횟수 증가, 한도 도달하면 FAILED
+        room.setGeocodeAttempts(room.getGeocodeAttempts() + 1);
+        if (room.getGeocodeAttempts() >= MAX_ATTEMPTS) {
+            room.setGeocodeStatus("FAILED");
+        }
+        room.setGeocodeUpdatedAt(LocalDateTime.now());
+        failed.incrementAndGet();
+    }
+
+    // 같은 주소(같은 건물, 다른 층/계약일)의 좌표 없는 매물에 좌표 전파
+    private void applyToSameAddress(RoomEntity room) {
+        if (!"SUCCESS".equals(room.getGeocodeStatus()) || room.getAddressFull() == null) return;
+
+        for (RoomEntity sibling : roomRepository.lockRoomsWithoutCoordinatesByAddress(room.getAddressFull())) {
+            if (sibling.getId().equals(room.getId())) continue;
+
+            setCoordinates(sibling, room.getX(), room.getY(), "kakao_cache");
+            roomSpatialIndex.put(sibling);
+            propagated.incrementAndGet();
+        }
+    }
+
+    private void setCoordinates(RoomEntity room, double x, double y, String source) {
+        room.setX(x);
+        room.setY(y);
+        room.setGeocodeStatus("SUCCESS");
+        room.setGeocodeSource(source);
+        room.setGeocodeUpdatedAt(LocalDateTime.now());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerExecutor.shutdownNow();
     }
-}
\ No newline at end of file
+}
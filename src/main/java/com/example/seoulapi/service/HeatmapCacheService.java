@@ -0,0 +1,129 @@
+package com.example.seoulapi.service;
+
+import com.example.seoulapi.dto.HeatmapResponseDto;
+import com.example.seoulapi.util.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// 히트맵 결과 캐시 - key: 구 + 가중치 6개, AI 모듈 파일이 바뀌면 전체 무효화
+@Service
+public class HeatmapCacheService {
+
+    private final LruCache<String, HeatmapResponseDto> cache;
+    private final long ttlMillis;
+    private final Path moduleDir;
+    private final long modelCheckIntervalMs;
+
+    private volatile String modelFingerprint;
+    private volatile long lastModelCheck;
+    private volatile long invalidations;
+
+    public HeatmapCacheService(
+            @Value("${heatmap.cache.max-size:500}") int maxSize,
+            @Value("${heatmap.cache.ttl-minutes:30}") long ttlMinutes,
+            @Value("${scoring.worker.dir:src/main/resources/ai_module}") String moduleDir,
+            @Value("${heatmap.cache.model-check-interval-ms:10000}") long modelCheckIntervalMs
+    ) {
+        this.cache = new LruCache<>(maxSize);
+        this.ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+        this.moduleDir = Paths.get(moduleDir).toAbsolutePath();
+        this.modelCheckIntervalMs = modelCheckIntervalMs;
+        this.modelFingerprint = computeFingerprint();
+        this.lastModelCheck = System.currentTimeMillis();
+    }
+
+    // 가중치는 서비스에서 int로 잘라 쓰므로 같은 int 조합이면 같은 결과
+    public static String key(String gu, double safety, double living, double green,
+                             double transport, double medical, double convenience) {
+        return gu + "|" + (int) safety + "," + (int) living + "," + (int) green + ","
+                + (int) transport + "," + (int) medical + "," + (int) convenience;
+    }
+
+    // 조회 전 checkModelChanged()로 모델 변경 여부를 먼저 확인할 것
+    public HeatmapResponseDto get(String key) {
+        return cache.get(key);
+    }
+
+    // 계산 시작 시점의 모델로 만든 결과만 저장 - 계산 중 모델이 바뀌어 캐시가 비워졌으면 옛 모델 결과는 버림
+    // checkModelChanged()의 교체/초기화와 같은 락 -> 비교와 저장 사이에 초기화가 끼어들지 않음
+    public synchronized boolean putIfModelUnchanged(String key, HeatmapResponseDto response, String fingerprint) {
+        if (!fingerprint.equals(modelFingerprint)) return false;
+        cache.put(key, response, ttlMillis);
+        return true;
+    }
+
+    public String getModelFingerprint() {
+        return modelFingerprint;
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    // 캐시 크기/적중률
+    public Map<String, Object> getStats() {
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        stats.put("invalidations", invalidations);
+        stats.put("modelFingerprint", modelFingerprint);
+        return stats;
+    }
+
+    // 모델 파일 변경 여부 확인 (checkInterval마다 한 번) - 바뀌었으면 true
+    public boolean checkModelChanged() {
+        long now = System.currentTimeMillis();
+        if (now - lastModelCheck < modelCheckIntervalMs) return false;
+
+        synchronized (this) {
+            if (now - lastModelCheck < modelCheckIntervalMs) return false;
+            lastModelCheck = now;
+
+            String current = computeFingerprint();
+            if (current.equals(modelFingerprint)) return false;
+
+            modelFingerprint = current;
+            invalidations++;
+            cache.clear();
+            System.out.println("[HeatmapCacheService] AI 모듈 변경 감지 -> 캐시 초기화");
+            return true;
+        }
+    }
+
+    // AI 모듈 디렉터리 파일 수 + 총 크기 + 최종 수정 시각
+    private String computeFingerprint() {
+        if (!Files.isDirectory(moduleDir)) return "missing";
+
+        long[] acc = new long[3];
+        try (Stream<Path> files = Files.walk(moduleDir)) {
+            // 실행 중 생기는 바이트코드 캐시는 제외
+            files.filter(Files::isRegularFile)
+                    .filter(file -> !file.toString().contains("__pycache__"))
+                    .forEach(file -> {
+                        try {
+                            acc[0]++;
+                            acc[1] += Files.size(file);
+                            acc[2] = Math.max(acc[2], Files.getLastModifiedTime(file).toMillis());
+                        } catch (IOException ignored) {}
+                    });
+        } catch (IOException e) {
+            System.err.println("[HeatmapCacheService] AI 모듈 확인 실패: " + e.getMessage());
+            return modelFingerprint == null ? "unknown" : modelFingerprint;
+        }
+        return acc[0] + ":" + acc[1] + ":" + acc[2];
+    }
+}
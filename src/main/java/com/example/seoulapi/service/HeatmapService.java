@@ -1,14 +1,16 @@
 package com.example.seoulapi.service;
 
 import com.example.seoulapi.dto.HeatmapResponseDto;
+import com.example.seoulapi.util.ScoringWorkerPool;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @RequiredArgsConstructor
@@ -17,9 +19,14 @@ public class HeatmapService {
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private final PercentileService percentileService;  //PercentileService 주입
+    private final ScoringWorkerPool scoringWorkerPool;
+    private final HeatmapCacheService heatmapCacheService;
+    private final ScoringEngine scoringEngine;
 
-    private static final String SCORE_SCRIPT_PATH =
-            new File("src/main/resources/ai_module/score_model.py").getAbsolutePath();
+    // 구별 법정동 목록 (점수 결과에서 수집) - 다음 요청에서 백분위를 미리 계산하는 데 사용
+    private final Map<String, List<String>> dongsByGu = new ConcurrentHashMap<>();
+
+    private static final String SCORE_SCRIPT = "score_model.py";
 
     public HeatmapResponseDto getHeatmapData(
             String gu,
@@ -30,67 +37,59 @@ public class HeatmapService {
             double medical,
             double convenience
     ) {
-        try {
-            // Python 인자 구성
-            Map<String, Integer> weights = new LinkedHashMap<>();
-            weights.put("안전", (int) safety);
-            weights.put("주거환경", (int) living);
-            weights.put("환경및녹지", (int) green);
-            weights.put("교통", (int) transport);
-            weights.put("의료", (int) medical);
-            weights.put("생활편의", (int) convenience);
-
-            String weightsJson = objectMapper.writeValueAsString(weights);
-
-            // Python 점수 계산
-            ProcessBuilder pb = new ProcessBuilder("python3", SCORE_SCRIPT_PATH, weightsJson, gu);
-            pb.directory(new File("src/main/resources/ai_module"));
-            Process process = pb.start();
-
-            // stderr 로그 출력
-            new Thread(() -> {
-                try (BufferedReader err = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
-                    err.lines().forEach(line -> System.err.println("[PYTHON ERR] " + line));
-                } catch (IOException ignored) {}
-            }).start();
-
-            // stdout(JSON) 읽기
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String output = reader.lines().collect(Collectors.joining());
-            process.waitFor();
-
-            if (output.isBlank()) {
-                throw new RuntimeException("Python 스크립트 결과 수신 오류");
-            }
+        // AI 모듈이 바뀌었으면 수집해 둔 법정동 목록/지표도 다시 적재 (JVM 계산은 재검증 후 사용, 워커는 새 모듈로 교체)
+        if (heatmapCacheService.checkModelChanged()) {
+            dongsByGu.clear();
+            scoringEngine.reload();
+            scoringWorkerPool.recycle();
+        }
 
-            // JSON 파싱
-            List<Map<String, Object>> resultList = objectMapper.readValue(output, new TypeReference<>() {});
+        String cacheKey = HeatmapCacheService.key(gu, safety, living, green, transport, medical, convenience);
+        HeatmapResponseDto cached = heatmapCacheService.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
 
-            resultList.sort((a, b) -> Double.compare(
-                    ((Number) b.get("최종점수")).doubleValue(),
-                    ((Number) a.get("최종점수")).doubleValue()
-            ));
+        // 계산 도중 다른 요청이 모델 변경을 감지하면 이 결과는 캐시하지 않음 (응답은 그대로 반환)
+        String modelFingerprint = heatmapCacheService.getModelFingerprint();
+        HeatmapResponseDto response = computeHeatmapData(gu, safety, living, green, transport, medical, convenience);
+        heatmapCacheService.putIfModelUnchanged(cacheKey, response, modelFingerprint);
+        return response;
+    }
 
-            Map<String, Integer> engWeights = new LinkedHashMap<>();
-            engWeights.put("safety", (int) safety);
-            engWeights.put("living", (int) living);
-            engWeights.put("green", (int) green);
-            engWeights.put("transport", (int) transport);
-            engWeights.put("medical", (int) medical);
-            engWeights.put("convenience", (int) convenience);
+    private HeatmapResponseDto computeHeatmapData(
+            String gu,
+            double safety,
+            double living,
+            double green,
+            double transport,
+            double medical,
+            double convenience
+    ) {
+        try {
+            int[] weightArray = {
+                    (int) safety, (int) living, (int) green, (int) transport, (int) medical, (int) convenience
+            };
+
+            List<Map<String, Object>> resultList;
+            Map<String, Map<String, Object>> percentiles;
+
+            if (scoringEngine.isValidated(gu)) {
+                // Python 결과와 검증된 구 -> JVM에서 바로 계산
+                resultList = scoringEngine.score(gu, weightArray);
+                percentiles = scoringEngine.percentiles(gu, weightArray);
+            } else {
+                PythonResult python = scoreWithPython(gu, weightArray);
+                resultList = python.resultList();
+                percentiles = python.percentiles();
+
+                if (scoringEngine.isAvailable()) {
+                    scoringEngine.validate(gu, weightArray, resultList, percentiles);
+                }
+            }
 
-            // 각 법정동마다 percentile 추가
             for (Map<String, Object> dongItem : resultList) {
-                String dongName = dongItem.get("법정동").toString();
-
-                // AI 모듈 호출
-                Map<String, Object> percentileMap = percentileService.computePercentile(
-                        gu,
-                        dongName,
-                        engWeights
-                );
-
-                dongItem.put("percentiles", percentileMap);
+                dongItem.put("percentiles", percentiles.get(dongItem.get("법정동").toString()));
             }
 
             // 순위
@@ -118,6 +117,64 @@ public class HeatmapService {
             throw new RuntimeException("AI 점수 계산 중 오류 발생: " + e.getMessage());
         }
     }
-}
 
+    // Python 점수/백분위 계산 - 이 구의 법정동 목록을 알고 있으면 백분위 배치를 점수 계산과 동시에 시작
+    private PythonResult scoreWithPython(String gu, int[] weightArray) throws Exception {
+        // Python 인자 구성
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        Map<String, Integer> engWeights = new LinkedHashMap<>();
+        for (int c = 0; c < ScoringEngine.CATEGORIES.length; c++) {
+            weights.put(ScoringEngine.CATEGORIES[c], weightArray[c]);
+            engWeights.put(ScoringEngine.CATEGORY_KEYS[c], weightArray[c]);
+        }
+        String weightsJson = objectMapper.writeValueAsString(weights);
+
+        // 미리 계산은 점수 계산 워커 풀 전용 스레드에서 - 실패/거절되면 아래에서 빠진 동으로 다시 계산
+        List<String> knownDongs = dongsByGu.get(gu);
+        CompletableFuture<Map<String, Map<String, Object>>> percentileFuture = CompletableFuture.completedFuture(Map.of());
+        if (knownDongs != null) {
+            try {
+                percentileFuture = scoringWorkerPool
+                        .supplyAsync(() -> percentileService.computePercentiles(gu, knownDongs, engWeights))
+                        .exceptionally(e -> Map.of());
+            } catch (RejectedExecutionException e) {
+                System.err.println("[HeatmapService] 백분위 미리 계산 생략 (대기열 가득 참): " + gu);
+            }
+        }
+
+        // Python 점수 계산 (상주 워커)
+        String output = scoringWorkerPool.execute(SCORE_SCRIPT, List.of(weightsJson, gu));
 
+        if (output.isBlank()) {
+            throw new RuntimeException("Python 스크립트 결과 수신 오류");
+        }
+
+        // JSON 파싱
+        List<Map<String, Object>> resultList = objectMapper.readValue(output, new TypeReference<>() {});
+
+        resultList.sort((a, b) -> Double.compare(
+                ((Number) b.get("최종점수")).doubleValue(),
+                ((Number) a.get("최종점수")).doubleValue()
+        ));
+
+        List<String> dongs = resultList.stream()
+                .map(item -> item.get("법정동").toString())
+                .toList();
+        dongsByGu.put(gu, dongs);
+
+        // 법정동별 percentile - 미리 시작한 배치에 없던 동만 한 번 더 배치 호출
+        Map<String, Map<String, Object>> percentiles = new HashMap<>(percentileFuture.join());
+        List<String> missing = dongs.stream()
+                .filter(dong -> !percentiles.containsKey(dong))
+                .toList();
+        if (!missing.isEmpty()) {
+            percentiles.putAll(percentileService.computePercentiles(gu, missing, engWeights));
+        }
+
+        return new PythonResult(resultList, percentiles);
+    }
+
+    private record PythonResult(List<Map<String, Object>> resultList,
+                                Map<String, Map<String, Object>> percentiles) {
+    }
+}
@@ -1,13 +1,12 @@
 package com.example.seoulapi.service;
 
+import com.example.seoulapi.util.ScoringWorkerPool;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -15,31 +14,16 @@ public class PercentileService {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    private static final String PYTHON_SCRIPT_PATH =
-            new File("src/main/resources/ai_module/compute_percentile.py").getAbsolutePath();
+    private final ScoringWorkerPool scoringWorkerPool;
+
+    private static final String PERCENTILE_SCRIPT = "compute_percentile.py";
 
     // 사용자가 선택한 법정동에 대해 선택된 항목의 백분위 정보 계산
     public Map<String, Object> computePercentile(String gu, String dong, Map<String, Integer> weights) {
         try {
             String weightsJson = objectMapper.writeValueAsString(weights);
 
-            ProcessBuilder pb = new ProcessBuilder(
-                    "python3", PYTHON_SCRIPT_PATH, weightsJson, gu, dong
-            );
-            pb.directory(new File("src/main/resources/ai_module"));
-            Process process = pb.start();
-
-            // 파이썬 에러 디버깅 용 stderr
-            new Thread(() -> {
-                try (BufferedReader err = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
-                    err.lines().forEach(line -> System.err.println("[PYTHON ERR] " + line));
-                } catch (IOException ignored) {}
-            }).start();
-
-            // stdout 읽기
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String output = reader.lines().collect(Collectors.joining());
-            process.waitFor();
+            String output = scoringWorkerPool.execute(PERCENTILE_SCRIPT, List.of(weightsJson, gu, dong));
 
             if (output.isBlank()) {
                 throw new RuntimeException("Python 스크립트 결과 수신 오류");
@@ -52,4 +36,31 @@ public class PercentileService {
             throw new RuntimeException("백분위 계산 중 오류 발생: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // 구 내 여러 법정동의 백분위를 워커 호출 한 번으로 계산 (key: 법정동, 입력 순서 유지)
+    public Map<String, Map<String, Object>> computePercentiles(String gu, List<String> dongs, Map<String, Integer> weights) {
+        try {
+            String weightsJson = objectMapper.writeValueAsString(weights);
+
+            List<List<String>> argsList = new ArrayList<>(dongs.size());
+            for (String dong : dongs) {
+                argsList.add(List.of(weightsJson, gu, dong));
+            }
+            List<String> outputs = scoringWorkerPool.executeBatch(PERCENTILE_SCRIPT, argsList);
+
+            Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+            for (int i = 0; i < dongs.size(); i++) {
+                String output = outputs.get(i);
+                if (output.isBlank()) {
+                    throw new RuntimeException("Python 스크립트 결과 수신 오류: " + dongs.get(i));
+                }
+                result.put(dongs.get(i), objectMapper.readValue(output, new TypeReference<>() {}));
+            }
+            return result;
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new RuntimeException("백분위 계산 중 오류 발생: " + e.getMessage());
+        }
+    }
+}
@@ -2,20 +2,92 @@ package com.example.seoulapi.service;
 
 import com.example.seoulapi.dto.RecommendationRequestDto;
 import com.example.seoulapi.dto.RecommendedRoomResponse;
+import com.example.seoulapi.model.CommuteOrigin;
+import com.example.seoulapi.model.CommuteResult;
 import com.example.seoulapi.model.RoomEntity;
 import com.example.seoulapi.repository.RoomRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class RecommendationService {
 
+    // 통근시간 계산 대상 최대 후보 수
+    private static final int CANDIDATE_LIMIT = 150;
+
     private final RoomRepository roomRepository;
     private final CommuteService commuteService;
+    private final RoomSpatialIndex roomSpatialIndex;
+    private final RecommendationSessionStore recommendationSessionStore;
+    private final CommuteLowerBound commuteLowerBound;
+
+    // 결과 대기 주기 - 계산이 끝났는지 확인하는 간격
+    private static final long STREAM_POLL_MS = 100;
+
+    // 스트리밍 추천 1건 = 전송 스레드 1개 + 계산 스레드 1개 (외부 API 호출은 FanOutExecutor에서)
+    private final ThreadPoolExecutor streamExecutor;
+    private final ThreadPoolExecutor computeExecutor;
+    private final long streamTimeoutMs;
+
+    public RecommendationService(
+            RoomRepository roomRepository,
+            CommuteService commuteService,
+            RoomSpatialIndex roomSpatialIndex,
+            RecommendationSessionStore recommendationSessionStore,
+            CommuteLowerBound commuteLowerBound,
+            @Value("${recommendation.stream.threads:8}") int streamThreads,
+            @Value("${recommendation.stream.queue-capacity:50}") int streamQueueCapacity,
+            @Value("${recommendation.stream.timeout-ms:30000}") long streamTimeoutMs
+    ) {
+        this.roomRepository = roomRepository;
+        this.commuteService = commuteService;
+        this.roomSpatialIndex = roomSpatialIndex;
+        this.recommendationSessionStore = recommendationSessionStore;
+        this.commuteLowerBound = commuteLowerBound;
+        this.streamTimeoutMs = streamTimeoutMs;
+
+        this.streamExecutor = new ThreadPoolExecutor(
+                streamThreads,
+                streamThreads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(streamQueueCapacity),
+                daemonThreads("recommendation-stream-"),
+                // 가득 차면 거절 -> 컨트롤러에서 503
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.streamExecutor.allowCoreThreadTimeOut(true);
+
+        // 실행 중인 스트림 작업당 계산 1건이라 스트림 스레드 수만큼이면 대기 없이 바로 실행됨
+        this.computeExecutor = new ThreadPoolExecutor(
+                streamThreads,
+                streamThreads,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                daemonThreads("recommendation-compute-")
+        );
+        this.computeExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadSeq = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadSeq.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
 
     public List<RecommendedRoomResponse> getRecommendedRooms(RecommendationRequestDto request) {
 
@@ -30,25 +102,16 @@ public class RecommendationService {
         double destLat = request.getWorkplaceCoords().getLat();
         double destLng = request.getWorkplaceCoords().getLng();
 
-        // 1. 구/동 매물 필터
-        List<RoomEntity> rooms = roomRepository.findByGuAndDong(gu, dong);
-        System.out.println("1. DB 매물 수: " + rooms.size());
+        // 1~3. 구/동 + 전세/월세 예산 필터 후 가까운 순으로 최대 150개 (자차도 배치 호출로 동일)
+        List<RoomSpatialIndex.Neighbor> selected = selectCandidates(
+                gu, dong, rentType, deposit, monthly, destLat, destLng, CANDIDATE_LIMIT
+        );
+        System.out.println("1. 예산 필터 + 거리순 후보 수: " + selected.size());
 
-        // 2. 전세/월세 예산 필터
-        List<RoomEntity> filtered = rooms.stream()
-                .filter(r -> {
-                    if ("전세".equals(rentType)) {
-                        return "전세".equals(r.getRentType()) && r.getDeposit() <= deposit;
-                    }
-                    if ("월세".equals(rentType)) {
-                        boolean depositOk = r.getDeposit() <= deposit;
-                        boolean rentOk = (monthly != null) ? r.getRentFee() <= monthly : true;
-                        return "월세".equals(r.getRentType()) && depositOk && rentOk;
-                    }
-                    return false;
-                })
-                .collect(Collectors.toList());
-        System.out.println("2. 예산 필터 후: " + filtered.size());
+        // 2. 직선거리 하한으로 제한시간 안에 못 가는 후보 제외 (외부 API 호출 절감)
+        String mode = commuteMode(transport);
+        selected = commuteLowerBound.prune(selected, mode, commuteLimit);
+        System.out.println("2. 통근시간 하한 필터 후: " + selected.size());
 
         // 3. 동적 거리 프리필터 -> 단일 목적지 API로 변경하면서 필요 없을 듯?
         /*
@@ -59,92 +122,178 @@ public class RecommendationService {
         System.out.println("3. 거리 프리필터 후: " + filtered.size());
          */
 
-        // 3. 가까운 순으로 최대 150개
-        List<RoomEntity> selected = filtered.stream()
-                .sorted(Comparator.comparingDouble(
-                        r -> getDistance(r.getY(), r.getX(), destLat, destLng)))
-                .limit("자차".equalsIgnoreCase(transport) ? 30 : 150) // 자차의 경우 상위 30개만
-                .collect(Collectors.toList());
-        System.out.println("4. limit(150) 적용 후: " + selected.size());
-
         // 4. 출발지 리스트 생성
-        List<Map<String, Object>> origins = selected.stream()
-                .map(r -> {
-                    Map<String, Object> m = new HashMap<>();
-                    m.put("id", String.valueOf(r.getId()));
-                    m.put("lat", r.getY());
-                    m.put("lng", r.getX());
-                    return m;
-                })
-                .collect(Collectors.toList());
+        List<CommuteOrigin> origins = toOrigins(selected);
 
         // 5. 통근시간 계산
-        List<Map<String, Object>> commuteInfos;
+        List<CommuteResult> commuteInfos;
         if ("자차".equalsIgnoreCase(transport)) {
             commuteInfos = commuteService.calculateDrivingInfo(origins, destLng, destLat);
         } else {
             commuteInfos = commuteService.calculateTransitSummary(origins, destLng, destLat);
         }
+        observeBounds(mode, selected, commuteInfos);
 
-        // 6. duration_min은 항상 존재하므로 필터 안정적
-        List<Map<String, Object>> filteredInfos =
+        // 6. 통근 불가(NO_PATH)는 UNREACHABLE이라 제한시간 필터에서 빠짐
+        int limit = commuteLimit;
+        List<CommuteResult> filteredInfos =
                 commuteInfos.stream()
-                        .filter(info ->
-                                (int) info.get("duration_min") <= commuteLimit)
+                        .filter(info -> info.within(limit))
                         .collect(Collectors.toList());
 
-        // 7. DTO 변환
-        List<RecommendedRoomResponse> finalList = filteredInfos.stream()
-                .map(info -> {
+        // 7. DTO 변환 (통근 조건 통과한 매물만 DB에서 조회)
+        List<RecommendedRoomResponse> finalList = toResponses(filteredInfos, selected);
 
-                    String id = (String) info.get("id");
-                    RoomEntity room = selected.stream()
-                            .filter(r -> String.valueOf(r.getId()).equals(id))
-                            .findFirst().orElse(null);
-
-                    if (room == null) return null;
-
-                    int durationMin = (int) info.get("duration_min");
-                    String method = (String) info.get("method");
-
-                    double distanceKm = getDistance(room.getY(), room.getX(), destLat, destLng);
-
-                    return RecommendedRoomResponse.builder()
-                            .id(room.getId())
-                            .gu(room.getGu())
-                            .dong(room.getDong())
-                            .lotNumber(room.getLotNumber())
-                            .building(room.getBuilding())
-                            .addressFull(room.getAddressFull())
-                            .lat(room.getY())
-                            .lng(room.getX())
-                            .contractDate(room.getContractDate())
-                            .rentType(room.getRentType())
-                            .deposit(room.getDeposit())
-                            .rentFee(room.getRentFee())
-                            .area(room.getArea())
-                            .floor(room.getFloor())
-                            .archYear(room.getArchYear())
-                            .receiptYear(room.getReceiptYear())
-                            .distanceKm(distanceKm)
-                            .durationMin(durationMin)
-                            .method(method)
-                            .image(room.getImage())
-                            .build();
-                })
-                .filter(Objects::nonNull)
-                .sorted(Comparator.comparingDouble(RecommendedRoomResponse::getDurationMin))
-                .collect(Collectors.toList());
-
-        System.out.println("5. 최종 출력 매물 수: " + finalList.size());
+        System.out.println("3. 최종 출력 매물 수: " + finalList.size());
         return finalList;
     }
 
+    // 스트리밍 버전 - 통근시간이 나오는 대로 조건 통과 매물을 room 이벤트로 보내고, 마지막에 summary 이벤트
+    // 작업 큐가 가득 차면 RejectedExecutionException
+    public SseEmitter streamRecommendedRooms(RecommendationRequestDto request) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        // 클라이언트 연결 종료/타임아웃 후에는 전송 중단 (계산은 마저 끝내서 캐시에 남김)
+        AtomicBoolean closed = new AtomicBoolean(false);
+        emitter.onCompletion(() -> closed.set(true));
+        emitter.onTimeout(() -> closed.set(true));
+        emitter.onError(e -> closed.set(true));
+
+        streamExecutor.execute(() -> {
+            try {
+                // fan-out 스레드는 큐에 넣기만 하고, 전송은 이 스레드에서만 (느린 클라이언트가 API 호출 스레드를 잡지 않도록)
+                BlockingQueue<RecommendedRoomResponse> outbox = new LinkedBlockingQueue<>();
+                CompletableFuture<Map<String, Object>> computation = CompletableFuture.supplyAsync(
+                        () -> streamRecommendedRooms(request, outbox::offer), computeExecutor);
+
+                while (!closed.get()) {
+                    RecommendedRoomResponse room = outbox.poll(STREAM_POLL_MS, TimeUnit.MILLISECONDS);
+                    if (room != null) {
+                        send(emitter, closed, "room", room);
+                    } else if (computation.isDone()) {
+                        break;
+                    }
+                }
+                // 연결이 끊겼으면 계산은 계산 스레드에서 마저 끝내서 캐시에 남김
+                if (closed.get()) return;
+
+                // 완료 전에 넣은 결과가 남아 있을 수 있음
+                List<RecommendedRoomResponse> rest = new ArrayList<>();
+                outbox.drainTo(rest);
+                for (RecommendedRoomResponse room : rest) {
+                    send(emitter, closed, "room", room);
+                }
+
+                send(emitter, closed, "summary", computation.join());
+                if (!closed.get()) emitter.complete();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!closed.get()) emitter.complete();
+
+            } catch (Exception e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                System.err.println("[RecommendationService] 추천 스트리밍 실패: " + cause.getMessage());
+                send(emitter, closed, "error", Map.of("message", String.valueOf(cause.getMessage())));
+                if (!closed.get()) emitter.complete();
+            }
+        });
+        return emitter;
+    }
+
+    private Map<String, Object> streamRecommendedRooms(
+            RecommendationRequestDto request, Consumer<RecommendedRoomResponse> onRoom
+    ) {
+        long startedAt = System.currentTimeMillis();
+
+        String transport = request.getTransportType();
+        int commuteLimit = request.getCommuteTimeLimit();
+        double destLat = request.getWorkplaceCoords().getLat();
+        double destLng = request.getWorkplaceCoords().getLng();
+
+        List<RoomSpatialIndex.Neighbor> selected = selectCandidates(
+                request.getGu(), request.getDong(), request.getRentType(),
+                request.getDeposit(), request.getRentFee(), destLat, destLng, CANDIDATE_LIMIT
+        );
+        String mode = commuteMode(transport);
+        int candidateCount = selected.size();
+        selected = commuteLowerBound.prune(selected, mode, commuteLimit);
+        List<CommuteOrigin> origins = toOrigins(selected);
+
+        // 후보 매물은 API 호출 전에 한 번에 조회 - 결과가 도착하면 DB 조회 없이 바로 변환
+        Map<Long, RoomSpatialIndex.Neighbor> candidateMap = new HashMap<>(selected.size() * 2);
+        List<Long> ids = new ArrayList<>(selected.size());
+        for (RoomSpatialIndex.Neighbor c : selected) {
+            candidateMap.putIfAbsent(c.id(), c);
+            ids.add(c.id());
+        }
+        Map<Long, RoomEntity> roomMap = new HashMap<>(selected.size() * 2);
+        for (RoomEntity room : roomRepository.findAllById(ids)) {
+            roomMap.put(room.getId(), room);
+        }
+
+        // 여러 fan-out 스레드에서 동시에 도착 - onRoom은 큐에 넣기만 해야 함
+        AtomicInteger emitted = new AtomicInteger();
+        AtomicLong firstEmitMs = new AtomicLong(-1);
+
+        Consumer<CommuteResult> onResult = info -> {
+            if (!info.within(commuteLimit)) return;
+
+            RoomSpatialIndex.Neighbor candidate = candidateMap.get(info.id());
+            RoomEntity room = roomMap.get(info.id());
+            if (candidate == null || room == null) return;
+
+            firstEmitMs.compareAndSet(-1, System.currentTimeMillis() - startedAt);
+            emitted.incrementAndGet();
+            onRoom.accept(toResponse(room, candidate, info));
+        };
+
+        List<CommuteResult> commuteInfos;
+        if ("자차".equalsIgnoreCase(transport)) {
+            commuteInfos = commuteService.calculateDrivingInfo(origins, destLng, destLat, onResult);
+        } else {
+            commuteInfos = commuteService.calculateTransitSummary(origins, destLng, destLat, onResult);
+        }
+        observeBounds(mode, selected, commuteInfos);
+
+        Map<String, Integer> byMethod = new TreeMap<>();
+        for (CommuteResult info : commuteInfos) {
+            byMethod.merge(info.method().name(), 1, Integer::sum);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("candidates", candidateCount);
+        summary.put("pruned", candidateCount - selected.size());
+        summary.put("computed", commuteInfos.size());
+        summary.put("returned", emitted.get());
+        summary.put("byMethod", byMethod);
+        summary.put("firstResultMs", firstEmitMs.get());
+        summary.put("elapsedMs", System.currentTimeMillis() - startedAt);
+        return summary;
+    }
+
+    // 전송 실패(연결 끊김)는 closed로 표시하고 이후 전송 생략
+    private void send(SseEmitter emitter, AtomicBoolean closed, String event, Object data) {
+        if (closed.get()) return;
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            closed.set(true);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamExecutor.shutdownNow();
+        computeExecutor.shutdownNow();
+    }
+
     // 개선 - 계산 페이지네이션 버전
     public Map<String, Object> getRecommendedRoomsPaged(
             RecommendationRequestDto request,
             int cursor,
-            int batchSize
+            int batchSize,
+            String sessionToken
     ) {
         String gu = request.getGu();
         String dong = request.getDong();
@@ -163,124 +312,85 @@ public class RecommendationService {
         }
         if (cursor < 0) cursor = 0;
 
-        // 1. 구/동 전체 후보
-        List<RoomEntity> rooms = roomRepository.findByGuAndDong(gu, dong);
-
-        // 2. 예산 필터 (좌표 없는 건 제외)
-        List<RoomEntity> filtered = rooms.stream()
-                .filter(r -> r.getX() != null && r.getY() != null)
-                .filter(r -> {
-                    if ("전세".equals(rentType)) {
-                        return "전세".equals(r.getRentType())
-                                && r.getDeposit() != null
-                                && deposit != null
-                                && r.getDeposit() <= deposit;
-                    }
-                    if ("월세".equals(rentType)) {
-                        boolean depositOk = r.getDeposit() != null && deposit != null && r.getDeposit() <= deposit;
-                        boolean rentOk = (monthly != null)
-                                ? (r.getRentFee() != null && r.getRentFee() <= monthly)
-                                : true;
-                        return "월세".equals(r.getRentType()) && depositOk && rentOk;
-                    }
-                    return false;
-                })
-                .collect(Collectors.toList());
-
-        // 3. 가까운 순으로 정렬
-        List<RoomEntity> candidates = filtered.stream()
-                .sorted(Comparator.comparingDouble(r -> getDistance(r.getY(), r.getX(), destLat, destLng)))
-                .collect(Collectors.toList());
+        // 1~3. 예산 필터 후 가까운 순으로 정렬된 전체 후보 (좌표 없는 건 제외)
+        // 같은 검색 조건의 세션이 살아 있으면 재조회/재정렬 없이 세션 후보 사용
+        String searchKey = searchKey(request);
+        RecommendationSessionStore.Session session = recommendationSessionStore.get(sessionToken, searchKey);
+        boolean sessionReused = session != null;
+        if (session == null) {
+            session = recommendationSessionStore.create(searchKey, selectCandidates(
+                    gu, dong, rentType, deposit, monthly, destLat, destLng, Integer.MAX_VALUE
+            ));
+        }
 
-        int totalCandidates = candidates.size();
+        int totalCandidates = session.size();
 
         // 4. cursor~cursor+batchSize 배치 슬라이스
         int from = Math.min(cursor, totalCandidates);
         int to = Math.min(from + batchSize, totalCandidates);
-        List<RoomEntity> batch = (from >= to) ? List.of() : candidates.subList(from, to);
+        List<RoomSpatialIndex.Neighbor> batch = session.slice(from, to);
+
+        // 5. 세션에 계산 결과가 없는 매물만 origins 생성
+        List<CommuteResult> commuteInfos = new ArrayList<>(batch.size());
+        List<RoomSpatialIndex.Neighbor> pending = new ArrayList<>(batch.size());
+        for (RoomSpatialIndex.Neighbor candidate : batch) {
+            CommuteResult known = session.getCommuteResult(candidate.id());
+            if (known != null) {
+                commuteInfos.add(known);
+            } else {
+                pending.add(candidate);
+            }
+        }
 
-        List<Long> computedIds = batch.stream()
-                .map(RoomEntity::getId)
-                .collect(Collectors.toList());
+        // 직선거리 하한으로 제한시간 안에 못 가는 후보는 호출 생략
+        String mode = commuteMode(transport);
+        int pendingCount = pending.size();
+        pending = commuteLowerBound.prune(pending, mode, commuteLimit);
 
-        // 5. 배치 origins 생성
-        List<Map<String, Object>> origins = batch.stream()
-                .map(r -> {
-                    Map<String, Object> m = new HashMap<>();
-                    m.put("id", String.valueOf(r.getId()));
-                    m.put("lat", r.getY());
-                    m.put("lng", r.getX());
-                    return m;
-                })
+        List<Long> computedIds = pending.stream()
+                .map(RoomSpatialIndex.Neighbor::id)
                 .collect(Collectors.toList());
 
-        // 6. 외부 API 호출은 이 배치에 대해서만
-        List<Map<String, Object>> commuteInfos;
-        if ("자차".equalsIgnoreCase(transport)) {
-            commuteInfos = commuteService.calculateDrivingInfo(origins, destLng, destLat);
-        } else {
-            commuteInfos = commuteService.calculateTransitSummary(origins, destLng, destLat);
+        List<CommuteOrigin> origins = toOrigins(pending);
+
+        // 6. 외부 API 호출은 이 배치의 미계산분에 대해서만
+        if (!origins.isEmpty()) {
+            List<CommuteResult> computed;
+            if ("자차".equalsIgnoreCase(transport)) {
+                computed = commuteService.calculateDrivingInfo(origins, destLng, destLat);
+            } else {
+                computed = commuteService.calculateTransitSummary(origins, destLng, destLat);
+            }
+            session.putCommuteResults(computed);
+            observeBounds(mode, pending, computed);
+            commuteInfos.addAll(computed);
         }
 
         // 7. 통근시간 조건 만족만 필터
-        List<Map<String, Object>> passedInfos = commuteInfos.stream()
-                .filter(info -> (int) info.get("duration_min") <= commuteLimit)
+        int limit = commuteLimit;
+        List<CommuteResult> passedInfos = commuteInfos.stream()
+                .filter(info -> info.within(limit))
                 .collect(Collectors.toList());
 
-        // 8. 매칭 최적화
-        Map<String, RoomEntity> roomMap = batch.stream()
-                .collect(Collectors.toMap(r -> String.valueOf(r.getId()), r -> r));
-
-        // 9. DTO 변환
-        List<RecommendedRoomResponse> items = passedInfos.stream()
-                .map(info -> {
-                    String id = (String) info.get("id");
-                    RoomEntity room = roomMap.get(id);
-                    if (room == null) return null;
-
-                    int durationMin = (int) info.get("duration_min");
-                    String method = (String) info.get("method");
-                    double distanceKm = getDistance(room.getY(), room.getX(), destLat, destLng);
-
-                    return RecommendedRoomResponse.builder()
-                            .id(room.getId())
-                            .gu(room.getGu())
-                            .dong(room.getDong())
-                            .lotNumber(room.getLotNumber())
-                            .building(room.getBuilding())
-                            .addressFull(room.getAddressFull())
-                            .lat(room.getY())
-                            .lng(room.getX())
-                            .contractDate(room.getContractDate())
-                            .rentType(room.getRentType())
-                            .deposit(room.getDeposit())
-                            .rentFee(room.getRentFee())
-                            .area(room.getArea())
-                            .floor(room.getFloor())
-                            .archYear(room.getArchYear())
-                            .receiptYear(room.getReceiptYear())
-                            .distanceKm(distanceKm)
-                            .durationMin(durationMin)
-                            .method(method)
-                            .image(room.getImage())
-                            .build();
-                })
-                .filter(Objects::nonNull)
-                .sorted(Comparator.comparingDouble(RecommendedRoomResponse::getDurationMin))
-                .collect(Collectors.toList());
+        // 8~9. DTO 변환
+        List<RecommendedRoomResponse> items = toResponses(passedInfos, batch);
 
         // 10. pagination 메타
         boolean hasNext = to < totalCandidates;
         int nextCursor = to;
 
         Map<String, Object> response = new LinkedHashMap<>();
+        response.put("sessionToken", session.getToken());
+        response.put("sessionReused", sessionReused);
         response.put("cursor", cursor);
         response.put("batchSize", batchSize);
         response.put("totalCandidates", totalCandidates);
+        response.put("candidatesTruncated", session.isTruncated());
         response.put("scannedFrom", from);
         response.put("scannedTo", to);
 
-        response.put("computedCount", batch.size());
+        response.put("computedCount", pending.size());
+        response.put("prunedCount", pendingCount - pending.size());
         response.put("computedIds", computedIds);
 
         response.put("returned", items.size());
@@ -291,16 +401,139 @@ public class RecommendationService {
         return response;
     }
 
+    private String commuteMode(String transport) {
+        return "자차".equalsIgnoreCase(transport)
+                ? CommuteCacheService.MODE_DRIVING
+                : CommuteCacheService.MODE_TRANSIT;
+    }
+
+    // 실제 경로 결과로 하한 속도 학습
+    private void observeBounds(
+            String mode, List<RoomSpatialIndex.Neighbor> candidates, List<CommuteResult> results
+    ) {
+        Map<Long, RoomSpatialIndex.Neighbor> candidateMap = new HashMap<>(candidates.size() * 2);
+        for (RoomSpatialIndex.Neighbor c : candidates) {
+            candidateMap.putIfAbsent(c.id(), c);
+        }
+        for (CommuteResult result : results) {
+            RoomSpatialIndex.Neighbor candidate = candidateMap.get(result.id());
+            if (candidate != null) commuteLowerBound.observe(mode, candidate.distanceKm(), result);
+        }
+    }
+
+    // 세션 재사용 판단용 - 후보/통근시간 결과에 영향을 주는 조건만 (통근 제한시간은 페이지마다 다시 필터)
+    private String searchKey(RecommendationRequestDto request) {
+        return request.getGu() + "|" + request.getDong() + "|" + request.getRentType()
+                + "|" + request.getDeposit() + "|" + request.getRentFee()
+                + "|" + request.getTransportType()
+                + "|" + request.getWorkplaceCoords().getLat() + "," + request.getWorkplaceCoords().getLng();
+    }
+
+    // 예산 필터 통과 매물을 목적지 가까운 순으로 최대 limit개
+    private List<RoomSpatialIndex.Neighbor> selectCandidates(
+            String gu, String dong, String rentType, Integer deposit, Integer monthly,
+            double destLat, double destLng, int limit
+    ) {
+        // 공간 인덱스가 준비됐으면 인덱스에서 바로 k개 조회
+        if (roomSpatialIndex.isReady()) {
+            return roomSpatialIndex.findNearest(
+                    gu, dong, destLat, destLng, limit,
+                    r -> matchesBudget(r.rentType, r.deposit, r.rentFee, rentType, deposit, monthly)
+            );
+        }
+
+        // 인덱스 적재 전 - DB(PostGIS)에서 가까운 순 k개만 조회
+        if (deposit == null || !("전세".equals(rentType) || "월세".equals(rentType))) {
+            return List.of();
+        }
+        Double maxRentFee = ("월세".equals(rentType) && monthly != null) ? monthly.doubleValue() : null;
 
-    // 거리 계산
-    private double getDistance(double lat1, double lon1, double lat2, double lon2) {
-        double R = 6371;
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dLat/2)*Math.sin(dLat/2)
-                + Math.cos(Math.toRadians(lat1))*Math.cos(Math.toRadians(lat2))
-                * Math.sin(dLon/2)*Math.sin(dLon/2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
-        return R * c;
+        return roomRepository.findNearestWithinBudget(
+                        gu, dong, rentType, deposit, maxRentFee, destLat, destLng, limit
+                ).stream()
+                .map(r -> new RoomSpatialIndex.Neighbor(
+                        r.getId(), r.getLat(), r.getLng(), r.getDistanceM() / 1000.0))
+                .collect(Collectors.toList());
+    }
+
+    // 전세/월세 예산 조건 (매물 값이 없으면 NaN -> 불통과)
+    private boolean matchesBudget(
+            String roomRentType, double roomDeposit, double roomRentFee,
+            String rentType, Integer deposit, Integer monthly
+    ) {
+        if ("전세".equals(rentType)) {
+            return "전세".equals(roomRentType) && deposit != null && roomDeposit <= deposit;
+        }
+        if ("월세".equals(rentType)) {
+            boolean depositOk = deposit != null && roomDeposit <= deposit;
+            boolean rentOk = (monthly != null) ? roomRentFee <= monthly : true;
+            return "월세".equals(roomRentType) && depositOk && rentOk;
+        }
+        return false;
+    }
+
+    private List<CommuteOrigin> toOrigins(List<RoomSpatialIndex.Neighbor> candidates) {
+        List<CommuteOrigin> origins = new ArrayList<>(candidates.size());
+        for (RoomSpatialIndex.Neighbor c : candidates) {
+            origins.add(new CommuteOrigin(c.id(), c.lat(), c.lng()));
+        }
+        return origins;
+    }
+
+    // 통근 조건 통과분만 매물 조회 후 DTO 변환 (소요시간 순)
+    private List<RecommendedRoomResponse> toResponses(
+            List<CommuteResult> passedInfos, List<RoomSpatialIndex.Neighbor> candidates
+    ) {
+        Map<Long, RoomSpatialIndex.Neighbor> candidateMap = new HashMap<>(candidates.size() * 2);
+        for (RoomSpatialIndex.Neighbor c : candidates) {
+            candidateMap.putIfAbsent(c.id(), c);
+        }
+
+        List<Long> ids = new ArrayList<>(passedInfos.size());
+        for (CommuteResult info : passedInfos) {
+            ids.add(info.id());
+        }
+
+        Map<Long, RoomEntity> roomMap = roomRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(RoomEntity::getId, r -> r));
+
+        return passedInfos.stream()
+                .map(info -> {
+                    RoomSpatialIndex.Neighbor candidate = candidateMap.get(info.id());
+                    RoomEntity room = roomMap.get(info.id());
+                    if (candidate == null || room == null) return null;
+
+                    return toResponse(room, candidate, info);
+                })
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingDouble(RecommendedRoomResponse::getDurationMin))
+                .collect(Collectors.toList());
+    }
+
+    private RecommendedRoomResponse toResponse(
+            RoomEntity room, RoomSpatialIndex.Neighbor candidate, CommuteResult info
+    ) {
+        return RecommendedRoomResponse.builder()
+                .id(room.getId())
+                .gu(room.getGu())
+                .dong(room.getDong())
+                .lotNumber(room.getLotNumber())
+                .building(room.getBuilding())
+                .addressFull(room.getAddressFull())
+                .lat(room.getY())
+                .lng(room.getX())
+                .contractDate(room.getContractDate())
+                .rentType(room.getRentType())
+                .deposit(room.getDeposit())
+                .rentFee(room.getRentFee())
+                .area(room.getArea())
+                .floor(room.getFloor())
+                .archYear(room.getArchYear())
+                .receiptYear(room.getReceiptYear())
+                .distanceKm(candidate.distanceKm())
+                .durationMin(info.durationMin())
+                .method(info.method().name())
+                .image(room.getImage())
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package com.example.seoulapi.service;
+
+import com.example.seoulapi.model.CommuteResult;
+import com.example.seoulapi.util.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 페이지 추천 세션 저장소 - 첫 페이지에서 정렬한 후보와 계산된 통근시간을 토큰 단위로 잠시 보관
+@Service
+public class RecommendationSessionStore {
+
+    private final SecureRandom random = new SecureRandom();
+    private final LruCache<String, Session> sessions;
+    private final long ttlMillis;
+    private final int maxCandidates;
+    private final long maxTotalCandidates;
+
+    public RecommendationSessionStore(
+            @Value("${recommendation.session.max-size:1000}") int maxSize,
+            @Value("${recommendation.session.ttl-minutes:10}") long ttlMinutes,
+            @Value("${recommendation.session.max-candidates:5000}") int maxCandidates,
+            @Value("${recommendation.session.max-total-candidates:500000}") long maxTotalCandidates
+    ) {
+        this.sessions = new LruCache<>(maxSize);
+        this.ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+        this.maxCandidates = maxCandidates;
+        this.maxTotalCandidates = maxTotalCandidates;
+    }
+
+    // 후보(가까운 순)로 새 세션 생성 후 토큰 반환
+    // 세션당 가까운 maxCandidates개까지만 보관, 전체 후보 수가 한도를 넘으면 오래 안 쓴 세션부터 제거
+    public synchronized Session create(String searchKey, List<RoomSpatialIndex.Neighbor> candidates) {
+        boolean truncated = candidates.size() > maxCandidates;
+        Session session = new Session(newToken(), searchKey,
+                truncated ? candidates.subList(0, maxCandidates) : candidates, truncated);
+
+        sessions.purgeExpired();
+        long total = session.size();
+        for (Session existing : sessions.values()) {
+            total += existing.size();
+        }
+        while (total > maxTotalCandidates) {
+            Session evicted = sessions.removeEldest();
+            if (evicted == null) break;
+            total -= evicted.size();
+        }
+
+        sessions.put(session.token, session, ttlMillis);
+        return session;
+    }
+
+    // 토큰이 없거나 만료됐거나 다른 검색 조건의 세션이면 null
+    public Session get(String token, String searchKey) {
+        if (token == null || token.isBlank()) return null;
+
+        Session session = sessions.get(token);
+        if (session == null || !session.searchKey.equals(searchKey)) return null;
+
+        // 페이지를 넘길 때마다 만료 시각 연장
+        sessions.put(token, session, ttlMillis);
+        return session;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // 후보는 기본형 배열로 보관 (구 단위 검색이면 수만 건)
+    public static final class Session {
+        private final String token;
+        private final String searchKey;
+        private final long[] ids;
+        private final double[] lats;
+        private final double[] lngs;
+        private final double[] distancesKm;
+        private final boolean truncated;
+
+        // 이미 계산한 통근시간 (같은 페이지 재요청 시 외부 API 재호출 안 함)
+        private final Map<Long, CommuteResult> commuteResults = new ConcurrentHashMap<>();
+
+        private Session(String token, String searchKey, List<RoomSpatialIndex.Neighbor> candidates, boolean truncated) {
+            this.token = token;
+            this.searchKey = searchKey;
+            this.truncated = truncated;
+
+            int n = candidates.size();
+            this.ids = new long[n];
+            this.lats = new double[n];
+            this.lngs = new double[n];
+            this.distancesKm = new double[n];
+            for (int i = 0; i < n; i++) {
+                RoomSpatialIndex.Neighbor c = candidates.get(i);
+                ids[i] = c.id();
+                lats[i] = c.lat();
+                lngs[i] = c.lng();
+                distancesKm[i] = c.distanceKm();
+            }
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        // 후보가 세션 한도에서 잘렸는지 (가까운 순 앞부분만 남음)
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        // [from, to) 구간 후보
+        public List<RoomSpatialIndex.Neighbor> slice(int from, int to) {
+            List<RoomSpatialIndex.Neighbor> batch = new ArrayList<>(Math.max(to - from, 0));
+            for (int i = from; i < to; i++) {
+                batch.add(new RoomSpatialIndex.Neighbor(ids[i], lats[i], lngs[i], distancesKm[i]));
+            }
+            return batch;
+        }
+
+        public CommuteResult getCommuteResult(long id) {
+            return commuteResults.get(id);
+        }
+
+        public void putCommuteResults(List<CommuteResult> results) {
+            for (CommuteResult result : results) {
+                commuteResults.put(result.id(), result);
+            }
+        }
+    }
+}
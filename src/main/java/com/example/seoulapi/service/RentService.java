@@ -1,29 +1,55 @@
 package com.example.seoulapi.service;
 
-import com.example.seoulapi.util.KakaoApiUtil;
 import com.example.seoulapi.model.RoomEntity;
+import com.example.seoulapi.repository.RoomBulkWriter;
 import com.example.seoulapi.repository.RoomRepository;
+import com.example.seoulapi.repository.RoomSpecifications;
 import com.example.seoulapi.util.AddressUtil;
+import com.example.seoulapi.dto.RoomPageResponse;
+import com.example.seoulapi.dto.RoomSearchCondition;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 public class RentService {
 
     private final RoomRepository roomRepository;
     private final EntityManager entityManager;
-    private final KakaoApiUtil kakaoApiUtil;
+    private final GeocodeService geocodeService;
+    private final RoomSpatialIndex roomSpatialIndex;
+    private final RoomBulkWriter roomBulkWriter;
+    private final ApiIdDedupIndex apiIdDedupIndex;
+    private final ObjectMapper objectMapper;
 
+    // 벌크 저장 방식 - batch(JDBC 배치 INSERT) or copy(PostgreSQL COPY), 둘 다 ON CONFLICT로 중복 무시
+    //                 jpa(saveAll) - ON CONFLICT 없음, 다른 적재 주체와 동시에 쓰면 중복 키로 트랜잭션 실패
+    @Value("${rent.save.mode:batch}")
+    private String saveMode;
 
-    public RentService(RoomRepository roomRepository, EntityManager entityManager, KakaoApiUtil kakaoApiUtil) {
+
+    public RentService(RoomRepository roomRepository, EntityManager entityManager, GeocodeService geocodeService,
+                       RoomSpatialIndex roomSpatialIndex, RoomBulkWriter roomBulkWriter,
+                       ApiIdDedupIndex apiIdDedupIndex, ObjectMapper objectMapper) {
         this.roomRepository = roomRepository;
         this.entityManager = entityManager;
-        this.kakaoApiUtil = kakaoApiUtil;
+        this.geocodeService = geocodeService;
+        this.roomSpatialIndex = roomSpatialIndex;
+        this.roomBulkWriter = roomBulkWriter;
+        this.apiIdDedupIndex = apiIdDedupIndex;
+        this.objectMapper = objectMapper;
     }
 
     public List<RoomEntity> getAllRooms() {
@@ -46,102 +72,150 @@ public class RentService {
         return roomRepository.findByRentFeeBetween(min, max);
     }
 
-    @Transactional
-    public void fixCoordinatesSequentially() {
-        List<RoomEntity> rooms = roomRepository.findRoomsWithoutCoordinates();
-        System.out.println("[좌표 미보정 매물 수]: " + rooms.size());
-
-        int updatedCount = 0;
-
-        for (RoomEntity room : rooms) {
-            try {
-                String cleanAddress = AddressUtil.clean(room.getAddressFull());
-                double[] coords = kakaoApiUtil.getCoordinatesByAddress(cleanAddress);
-
-
-                if (coords != null) {
-                    room.setX(coords[0]);
-                    room.setY(coords[1]);
-                    room.setGeocodeStatus("SUCCESS");
-                } else {
-                    room.setGeocodeStatus("FAILED");
-                }
-
-                room.setGeocodeAttempts(room.getGeocodeAttempts() + 1);
-
-                updatedCount++;
+    // id keyset 페이지 - 한 개 더 읽어서 다음 페이지 여부 판단
+    public RoomPageResponse getRoomsPage(Long cursor, int size, String gu, String dong) {
+        long after = cursor == null ? 0 : cursor;
+        List<RoomEntity> rows = roomRepository.findPageAfter(after, gu, dong, Limit.of(size + 1));
+
+        boolean hasNext = rows.size() > size;
+        List<RoomEntity> items = hasNext ? rows.subList(0, size) : rows;
+
+        return RoomPageResponse.builder()
+                .cursor(cursor)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(items.isEmpty() ? cursor : items.get(items.size() - 1).getId())
+                .items(items)
+                .build();
+    }
 
-                // 100건마다 flush
-                if (updatedCount % 500 == 0) {
-                    roomRepository.flush();
+    // 복합 조건 검색 - 조건 전체를 한 쿼리의 WHERE로, id keyset 페이지
+    public RoomPageResponse searchRooms(RoomSearchCondition condition, int size) {
+        List<RoomEntity> rows = roomRepository.findBy(RoomSpecifications.search(condition),
+                query -> query.sortBy(Sort.by("id")).limit(size + 1).all());
+
+        boolean hasNext = rows.size() > size;
+        List<RoomEntity> items = hasNext ? rows.subList(0, size) : rows;
+
+        return RoomPageResponse.builder()
+                .cursor(condition.getCursor())
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(items.isEmpty() ? condition.getCursor() : items.get(items.size() - 1).getId())
+                .items(items)
+                .build();
+    }
 
+    // 매물을 한 줄에 하나씩 JSON으로 출력 (NDJSON) - 전체 목록/JSON을 메모리에 올리지 않음, 출력 건수 반환
+    @Transactional
+    public long streamRooms(String gu, String dong, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // 같은 generator로 여러 루트 값을 쓰면 기본 구분자(공백)가 줄 앞에 붙음 -> 줄바꿈은 아래에서 직접
+        generator.setRootValueSeparator(null);
+
+        long count = 0;
+        try (Stream<RoomEntity> rooms = roomRepository.streamRooms(gu, dong)) {
+            Iterator<RoomEntity> it = rooms.iterator();
+            while (it.hasNext()) {
+                RoomEntity room = it.next();
+                generator.writeObject(room);
+                generator.writeRaw('\n');
+                entityManager.detach(room);   // 영속성 컨텍스트에 쌓이지 않도록
+
+                if (++count % 1000 == 0) {
+                    generator.flush();
                 }
-
-                // API 한도 초과 방지용
-                Thread.sleep(100);
-
-            } catch (Exception e) {
-                System.err.println("좌표 변환 실패: " + room.getAddressFull());
-                e.printStackTrace();
             }
         }
-
-        roomRepository.flush();
+        generator.flush();
+        return count;
     }
 
-
     // 단건 저장
     public void saveRoom(JsonNode row) {
-        RoomEntity entity = convertRowToEntity(row, new HashSet<>());
+        RoomEntity entity = convertRowToEntity(row);
         if (entity != null) {
             roomRepository.save(entity);
+            apiIdDedupIndex.addAll(List.of(entity.getApiId()));
         }
     }
 
-    // 여러 건 저장 (배치 삽입 방식으로?)
+    // 여러 건 저장 (배치 삽입 방식으로?) - 신규 저장 건수 반환
     @Transactional
-    public void saveRooms(List<JsonNode> rows) {
-        long totalStart = System.currentTimeMillis();
-
-        // 이미 DB에 존재하는 apiId 조회
-        Set<String> existingIds = new HashSet<>(roomRepository.findAllApiIds());
+    public int saveRooms(List<JsonNode> rows) {
+        return writeRooms(convertRows(rows));
+    }
 
-        List<RoomEntity> entities = rows.parallelStream()
-                .map(row -> convertRowToEntity(row, existingIds))
+    // 행 -> 매물 엔티티 (DB 접근 없음, 적재 파이프라인의 변환 단계)
+    // 중복 제외는 쓰기 단계에서 - 지문 인덱스 적중만으로 버리면 지문 충돌 시 신규 계약이 누락됨
+    public List<RoomEntity> convertRows(List<JsonNode> rows) {
+        return rows.parallelStream()
+                .map(this::convertRowToEntity)
                 .filter(Objects::nonNull)
                 .distinct()
                 .toList();
+    }
 
-        List<RoomEntity> batch = new ArrayList<>();
-        int batchSize = 1000;
+    // 변환된 매물 저장 (적재 파이프라인의 쓰기 단계) - 신규 저장 건수 반환
+    @Transactional
+    public int writeRooms(List<RoomEntity> converted) {
+        List<RoomEntity> entities = excludeExisting(converted);
 
-        for (RoomEntity entity : entities) {
-            batch.add(entity);
-            existingIds.add(entity.getApiId()); // 중복 방지
-            if (batch.size() == batchSize) {
-                saveBatch(batch);
-            }
+        List<String> savedApiIds = entities.stream()
+                .map(RoomEntity::getApiId)
+                .toList();
+
+        // batch/copy는 ON CONFLICT (api_id) DO NOTHING - 다른 적재 주체가 먼저 넣은 행도 오류 없이 무시
+        int inserted;
+        if ("jpa".equalsIgnoreCase(saveMode)) {
+            inserted = saveAllInBatches(entities);
+        } else if ("copy".equalsIgnoreCase(saveMode)) {
+            inserted = roomBulkWriter.copyInsert(entities);   // 스테이징 테이블 경유 한 번에 삽입
+        } else {
+            inserted = roomBulkWriter.batchInsert(entities);
         }
 
-        if (!batch.isEmpty()) {
-            saveBatch(batch);
+        // 커밋 후 인덱스 반영 (중복 방지)
+        apiIdDedupIndex.addAll(savedApiIds);
+        return inserted;
+    }
+
+    // JPA saveAll 저장 - 1000건마다 flush 후 영속성 컨텍스트 비움
+    private int saveAllInBatches(List<RoomEntity> entities) {
+        int batchSize = 1000;
+        for (int from = 0; from < entities.size(); from += batchSize) {
+            roomRepository.saveAll(entities.subList(from, Math.min(from + batchSize, entities.size())));
+            roomRepository.flush();
+            entityManager.clear();
         }
+        return entities.size();
+    }
 
-        long totalEnd = System.currentTimeMillis();
+    // 아직 저장되지 않은 계약 수 (증분 동기화에서 실제 신규 건수 판단용, 변환 불가 행은 세지 않음)
+    public int countNew(List<JsonNode> rows) {
+        return excludeExisting(convertRows(rows)).size();
     }
 
-    // 배치 저장 처리
-    private void saveBatch(List<RoomEntity> batch) {
-        long dbStart = System.currentTimeMillis();
-        roomRepository.saveAll(batch);
-        roomRepository.flush();
-        entityManager.clear();
-        long dbEnd = System.currentTimeMillis();
-        batch.clear();
+    // 이미 DB에 있는 매물 제외 - 지문 인덱스에 없으면 신규, 있으면 DB에서 한 번에 확인 (지문 충돌 대비)
+    private List<RoomEntity> excludeExisting(List<RoomEntity> converted) {
+        List<String> suspected = converted.stream()
+                .map(RoomEntity::getApiId)
+                .filter(apiIdDedupIndex::contains)
+                .toList();
+        if (suspected.isEmpty()) return converted;
+
+        Set<String> existing = new HashSet<>(roomRepository.findExistingApiIds(suspected));
+        if (existing.size() < suspected.size()) {
+            System.out.println("[RentService] 지문 인덱스 적중이지만 DB에 없음(지문 충돌) " + (suspected.size() - existing.size()) + "건 -> 신규로 저장");
+        }
+        return converted.stream()
+                .filter(entity -> !existing.contains(entity.getApiId()))
+                .toList();
     }
 
     // Row -> Entity 변환
-    private RoomEntity convertRowToEntity(JsonNode row, Set<String> existingIds) {
+    private RoomEntity convertRowToEntity(JsonNode row) {
         String ctrtDay = row.path("CTRT_DAY").asText("");
         String gu = row.path("CGG_NM").asText("");
         String dong = row.path("STDG_NM").asText("");
@@ -171,11 +245,6 @@ public class RentService {
             return null;
         }
 
-        // 이미 존재하면 skip
-        if (existingIds.contains(apiId)) {
-            return null;
-        }
-
         // 신규 매물만 Entity 생성
         String address = AddressUtil.buildAddress(row);
 
@@ -196,8 +265,9 @@ public class RentService {
         entity.setArchYear(row.path("ARCH_YR").asInt(0));
         entity.setReceiptYear(row.path("RCPT_YR").asInt(0));
 
-        entity.setX(0.0);
-        entity.setY(0.0);
+        // 좌표 없음은 NULL (V2 규칙) - 지오코딩 워커/백필 쿼리가 x IS NULL OR y IS NULL로 대상 선정
+        entity.setX(null);
+        entity.setY(null);
 
         entity.setGeocodeStatus("PENDING");
         entity.setGeocodeAttempts(0);
@@ -206,7 +276,7 @@ public class RentService {
     }
 
     public void saveRoomWithCoordinate(JsonNode row) {
-        RoomEntity entity = convertRowToEntity(row, new HashSet<>());
+        RoomEntity entity = convertRowToEntity(row);
         if (entity == null) return;
 
         if (roomRepository.existsByApiId(entity.getApiId())) {
@@ -215,9 +285,8 @@ public class RentService {
         }
 
         try {
-            String cleanAddress = AddressUtil.clean(entity.getAddressFull());
-            double[] coords = kakaoApiUtil.getCoordinatesByAddress(cleanAddress);
-
+            // 주소 캐시 우선, 없을 때만 카카오 호출 (호출 한도는 지오코딩 워커와 공유)
+            double[] coords = geocodeService.resolveCoordinates(entity.getAddressFull());
 
             if (coords != null) {
                 entity.setX(coords[0]);
@@ -231,10 +300,11 @@ public class RentService {
 
             // DB 저장
             roomRepository.save(entity);
+            roomSpatialIndex.put(entity);
+            apiIdDedupIndex.addAll(List.of(entity.getApiId()));
 
-            // API 과호출 방지
-            Thread.sleep(100);
-
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             entity.setGeocodeStatus("ERROR");
             e.printStackTrace();
@@ -244,5 +314,7 @@ public class RentService {
     // 전체 삭제
     public void deleteAllRooms() {
         roomRepository.deleteAll();
+        roomSpatialIndex.clear();
+        apiIdDedupIndex.clear();
     }
 }
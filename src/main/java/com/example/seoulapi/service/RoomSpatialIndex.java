@@ -0,0 +1,290 @@
+package com.example.seoulapi.service;
+
+import com.example.seoulapi.model.RoomEntity;
+import com.example.seoulapi.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// 매물 좌표 인메모리 공간 인덱스 - 구/동 단위로 나눈 격자(grid) 버킷
+@Component
+@RequiredArgsConstructor
+public class RoomSpatialIndex {
+
+    // 격자 한 칸 크기 (위도 약 550m)
+    private static final double CELL_DEGREES = 0.005;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final RoomRepository roomRepository;
+
+    private final Map<String, Partition> partitions = new HashMap<>(); // key: 구|동
+    private final Map<Long, IndexedRoom> byId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    // 기동 시 좌표 있는 매물 전체 적재 (필요한 컬럼만 조회)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = roomRepository.findIndexableRooms();
+
+        lock.writeLock().lock();
+        try {
+            partitions.clear();
+            byId.clear();
+            for (Object[] row : rows) {
+                insert(toIndexedRoom(row));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ready = true;
+        System.out.println("[RoomSpatialIndex] 적재 완료: " + rows.size() + "건 ("
+                + (System.currentTimeMillis() - start) + "ms)");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // 좌표 갱신/신규 매물 반영 - 트랜잭션 중이면 커밋 후 반영
+    public void put(RoomEntity entity) {
+        if (!hasCoordinates(entity)) return;
+
+        IndexedRoom room = new IndexedRoom(
+                entity.getId(),
+                entity.getY(),
+                entity.getX(),
+                entity.getGu(),
+                entity.getDong(),
+                entity.getRentType(),
+                entity.getDeposit() == null ? Double.NaN : entity.getDeposit(),
+                entity.getRentFee() == null ? Double.NaN : entity.getRentFee()
+        );
+
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                insert(room);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // 벌크 UPDATE로 좌표가 채워진 매물 반영 (findIndexableRoomsByIds 결과) - 트랜잭션 중이면 커밋 후 반영
+    public void putAll(List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+
+        List<IndexedRoom> rooms = rows.stream().map(RoomSpatialIndex::toIndexedRoom).toList();
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                rooms.forEach(this::insert);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void clear() {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                partitions.clear();
+                byId.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // 구/동 내에서 목적지와 가까운 순으로 최대 k개 (filter 통과한 매물만)
+    public List<Neighbor> findNearest(
+            String gu, String dong, double lat, double lng, int k, Predicate<IndexedRoom> filter
+    ) {
+        lock.readLock().lock();
+        try {
+            Partition partition = partitions.get(partitionKey(gu, dong));
+            if (partition == null || k <= 0) return List.of();
+
+            // 거리 내림차순 힙 - 루트가 현재 k번째 후보
+            PriorityQueue<Neighbor> heap =
+                    new PriorityQueue<>(Comparator.comparingDouble(Neighbor::distanceKm).reversed());
+
+            int row0 = cellOf(lat);
+            int col0 = cellOf(lng);
+            int maxRing = partition.maxRingFrom(row0, col0);
+
+            // 한 칸의 최소 변 길이(km) - 경도 방향이 더 짧음
+            double cellKm = CELL_DEGREES * KM_PER_DEGREE * Math.min(1.0, Math.cos(Math.toRadians(lat)));
+
+            for (int ring = 0; ring <= maxRing; ring++) {
+                for (int dr = -ring; dr <= ring; dr++) {
+                    // 이번 링의 테두리 칸만 (위/아래 줄은 전체, 나머지는 양 끝 칸)
+                    int step = (Math.abs(dr) == ring) ? 1 : Math.max(1, 2 * ring);
+                    for (int dc = -ring; dc <= ring; dc += step) {
+                        List<IndexedRoom> bucket = partition.cells.get(cellKey(row0 + dr, col0 + dc));
+                        if (bucket == null) continue;
+
+                        for (IndexedRoom room : bucket) {
+                            if (!filter.test(room)) continue;
+
+                            double distance = getDistance(room.lat, room.lng, lat, lng);
+                            if (heap.size() < k) {
+                                heap.add(new Neighbor(room.id, room.lat, room.lng, distance));
+                            } else if (distance < heap.peek().distanceKm()) {
+                                heap.poll();
+                                heap.add(new Neighbor(room.id, room.lat, room.lng, distance));
+                            }
+                        }
+                    }
+                }
+
+                // 다음 링은 최소 ring * cellKm 이상 떨어져 있음 -> 더 가까운 후보 불가
+                if (heap.size() == k && ring * cellKm > heap.peek().distanceKm()) break;
+            }
+
+            List<Neighbor> result = new ArrayList<>(heap);
+            result.sort(Comparator.comparingDouble(Neighbor::distanceKm));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // findIndexableRooms 행 -> 인덱스 항목
+    private static IndexedRoom toIndexedRoom(Object[] row) {
+        return new IndexedRoom(
+                (Long) row[0],
+                (Double) row[1],
+                (Double) row[2],
+                (String) row[3],
+                (String) row[4],
+                (String) row[5],
+                row[6] == null ? Double.NaN : (Double) row[6],
+                row[7] == null ? Double.NaN : (Double) row[7]
+        );
+    }
+
+    // 쓰기 락 보유 상태에서 호출
+    private void insert(IndexedRoom room) {
+        IndexedRoom previous = byId.put(room.id, room);
+        if (previous != null) {
+            Partition old = partitions.get(partitionKey(previous.gu, previous.dong));
+            if (old != null) old.remove(previous);
+        }
+        partitions.computeIfAbsent(partitionKey(room.gu, room.dong), key -> new Partition()).add(room);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private boolean hasCoordinates(RoomEntity room) {
+        return room.getId() != null
+                && room.getX() != null && room.getX() != 0
+                && room.getY() != null && room.getY() != 0;
+    }
+
+    private static String partitionKey(String gu, String dong) {
+        return gu + "|" + dong;
+    }
+
+    private static int cellOf(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    // 거리 계산
+    private static double getDistance(double lat1, double lon1, double lat2, double lon2) {
+        double R = 6371;
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat/2)*Math.sin(dLat/2)
+                + Math.cos(Math.toRadians(lat1))*Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon/2)*Math.sin(dLon/2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
+        return R * c;
+    }
+
+    // 구/동 단위 격자
+    private static class Partition {
+        private final Map<Long, List<IndexedRoom>> cells = new HashMap<>();
+        private int minRow = Integer.MAX_VALUE, maxRow = Integer.MIN_VALUE;
+        private int minCol = Integer.MAX_VALUE, maxCol = Integer.MIN_VALUE;
+
+        void add(IndexedRoom room) {
+            int row = cellOf(room.lat);
+            int col = cellOf(room.lng);
+            cells.computeIfAbsent(cellKey(row, col), key -> new ArrayList<>()).add(room);
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+            minCol = Math.min(minCol, col);
+            maxCol = Math.max(maxCol, col);
+        }
+
+        void remove(IndexedRoom room) {
+            List<IndexedRoom> bucket = cells.get(cellKey(cellOf(room.lat), cellOf(room.lng)));
+            if (bucket != null) bucket.remove(room);
+        }
+
+        // 기준 칸에서 파티션 끝 칸까지의 링 수
+        int maxRingFrom(int row, int col) {
+            return Math.max(
+                    Math.max(Math.abs(row - minRow), Math.abs(row - maxRow)),
+                    Math.max(Math.abs(col - minCol), Math.abs(col - maxCol))
+            );
+        }
+    }
+
+    // 인덱스에 올리는 매물 요약 (원시 타입 위주)
+    public static final class IndexedRoom {
+        public final long id;
+        public final double lat;
+        public final double lng;
+        public final String gu;
+        public final String dong;
+        public final String rentType;
+        public final double deposit;   // 없으면 NaN
+        public final double rentFee;   // 없으면 NaN
+
+        IndexedRoom(long id, double lat, double lng, String gu, String dong,
+                    String rentType, double deposit, double rentFee) {
+            this.id = id;
+            this.lat = lat;
+            this.lng = lng;
+            this.gu = gu;
+            this.dong = dong;
+            this.rentType = rentType;
+            this.deposit = deposit;
+            this.rentFee = rentFee;
+        }
+    }
+
+    // 검색 결과 - 매물 id, 좌표, 목적지까지 직선거리(km)
+    public record Neighbor(long id, double lat, double lng, double distanceKm) {
+    }
+}
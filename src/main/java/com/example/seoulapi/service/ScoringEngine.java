@@ -0,0 +1,388 @@
+package com.example.seoulapi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// JVM 내 히트맵 점수 계산 - 법정동별 항목 지표를 원시 배열로 올려 두고 가중합/순위/백분위 계산
+// 구 단위로 Python 결과와 비교 검증을 통과해야 실제 응답에 사용
+@Service
+public class ScoringEngine {
+
+    // 항목 순서 = 가중치 배열 순서
+    public static final String[] CATEGORIES = {"안전", "주거환경", "환경및녹지", "교통", "의료", "생활편의"};
+    public static final String[] CATEGORY_KEYS = {"safety", "living", "green", "transport", "medical", "convenience"};
+
+    private final boolean enabled;
+    private final Path indicatorCsv;
+    private final int requiredMatches;
+    private final double tolerance;
+
+    private volatile Table table;   // 재적재 시 통째로 교체
+
+    private final Map<String, Set<String>> matchedWeightsByGu = new ConcurrentHashMap<>();   // 구 -> 일치한 가중치 조합
+    private final Set<String> mismatchedGus = ConcurrentHashMap.newKeySet();
+
+    public ScoringEngine(
+            @Value("${scoring.native.enabled:true}") boolean enabled,
+            @Value("${scoring.native.indicator-csv:src/main/resources/ai_module/indicators.csv}") String indicatorCsv,
+            @Value("${scoring.native.required-matches:2}") int requiredMatches,
+            @Value("${scoring.native.tolerance:0.01}") double tolerance
+    ) {
+        this.enabled = enabled;
+        this.indicatorCsv = Paths.get(indicatorCsv).toAbsolutePath();
+        this.requiredMatches = requiredMatches;
+        this.tolerance = tolerance;
+        reload();
+    }
+
+    // 지표 파일 (재)적재 + 검증 상태 초기화
+    public void reload() {
+        matchedWeightsByGu.clear();
+        mismatchedGus.clear();
+
+        if (!enabled || !Files.isRegularFile(indicatorCsv)) {
+            table = null;
+            System.out.println("[ScoringEngine] 비활성 (지표 파일 없음: " + indicatorCsv + ")");
+            return;
+        }
+
+        try {
+            table = Table.load(indicatorCsv);
+            System.out.println("[ScoringEngine] 지표 적재 완료: 법정동 " + table.size + "개, 구 " + table.rowsByGu.size() + "개");
+        } catch (Exception e) {
+            table = null;
+            System.err.println("[ScoringEngine] 지표 적재 실패: " + e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return table != null;
+    }
+
+    // 이 구는 서로 다른 가중치 조합으로 Python 결과와 충분히 일치 -> JVM 계산으로 대체 가능
+    public boolean isValidated(String gu) {
+        return table != null
+                && !mismatchedGus.contains(gu)
+                && matchedWeightsByGu.getOrDefault(gu, Set.of()).size() >= requiredMatches;
+    }
+
+    // 법정동별 최종점수 (점수 내림차순) - Python score_model.py 출력과 같은 형태
+    // 지표 파일의 추가 컬럼(항목 지표 외)은 Python 출력의 나머지 필드로 보고 그대로 실어 보냄
+    public List<Map<String, Object>> score(String gu, int[] weights) {
+        Table t = requireTable();
+        int[] rows = t.rowsOf(gu);
+        double[] scores = t.weightedScores(rows, weights);
+
+        Integer[] order = sortedByScoreDesc(scores);
+        List<Map<String, Object>> result = new ArrayList<>(rows.length);
+        for (int i : order) {
+            int row = rows[i];
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("법정동코드", t.codes[row]);
+            item.put("법정동", t.dongs[row]);
+            item.put("시군구명", t.gus[row]);
+            item.put("최종점수", scores[i]);
+            for (int e = 0; e < t.extraNames.length; e++) {
+                item.put(t.extraNames[e], t.extraValues[e][row]);
+            }
+            result.add(item);
+        }
+        return result;
+    }
+
+    // 법정동별 백분위 (key: 법정동) - 구 내 선택 항목(가중치 0 제외)별/최종점수 백분위 (0~100, 높을수록 상위)
+    // compute_percentile.py 실제 출력으로 확인한 형태는 아님 - 다르면 검증에서 불일치로 걸려 그 구는 Python 유지
+    public Map<String, Map<String, Object>> percentiles(String gu, int[] weights) {
+        Table t = requireTable();
+        int[] rows = t.rowsOf(gu);
+        double[] scores = t.weightedScores(rows, weights);
+
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (int i = 0; i < rows.length; i++) {
+            Map<String, Object> percentile = new LinkedHashMap<>();
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                if (weights[c] == 0) continue;
+                percentile.put(CATEGORY_KEYS[c], percentileOf(t.values[c], rows, t.values[c][rows[i]]));
+            }
+            percentile.put("total", percentileOf(scores, scores[i]));
+            result.put(t.dongs[rows[i]], percentile);
+        }
+        return result;
+    }
+
+    // Python 결과와 비교해 일치한 가중치 조합 누적 (같은 조합 반복은 한 번으로, 한 번이라도 어긋나면 그 구는 계속 Python 사용)
+    public void validate(String gu, int[] weights,
+                         List<Map<String, Object>> pythonScores,
+                         Map<String, Map<String, Object>> pythonPercentiles) {
+        if (table == null || mismatchedGus.contains(gu)) return;
+
+        try {
+            String diff = firstScoreDiff(score(gu, weights), pythonScores);
+            if (diff == null) {
+                diff = firstPercentileDiff(percentiles(gu, weights), pythonPercentiles);
+            }
+
+            if (diff != null) {
+                mismatchedGus.add(gu);
+                System.err.println("[ScoringEngine] " + gu + " Python 결과와 불일치 -> Python 유지: " + diff);
+                return;
+            }
+
+            Set<String> matched = matchedWeightsByGu.computeIfAbsent(gu, key -> ConcurrentHashMap.newKeySet());
+            if (matched.add(Arrays.toString(weights)) && matched.size() == requiredMatches) {
+                System.out.println("[ScoringEngine] " + gu + " 검증 통과 -> JVM 점수 계산 사용");
+            }
+        } catch (Exception e) {
+            mismatchedGus.add(gu);
+            System.err.println("[ScoringEngine] " + gu + " 검증 실패: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Table t = table;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("available", t != null);
+        status.put("indicatorCsv", indicatorCsv.toString());
+        status.put("dongs", t == null ? 0 : t.size);
+        status.put("validatedGus", matchedWeightsByGu.keySet().stream().filter(this::isValidated).sorted().toList());
+        status.put("mismatchedGus", mismatchedGus.stream().sorted().toList());
+        return status;
+    }
+
+    // 법정동별 항목이 같은 key 집합이어야 하고 모든 값이 일치해야 통과 (JVM 결과가 응답을 그대로 대체하므로)
+    private String firstScoreDiff(List<Map<String, Object>> nativeScores, List<Map<String, Object>> pythonScores) {
+        if (nativeScores.size() != pythonScores.size()) {
+            return "법정동 수 " + nativeScores.size() + " != " + pythonScores.size();
+        }
+
+        Map<String, Map<String, Object>> nativeByDong = new HashMap<>();
+        for (Map<String, Object> item : nativeScores) {
+            nativeByDong.put(item.get("법정동").toString(), item);
+        }
+        for (Map<String, Object> item : pythonScores) {
+            String dong = String.valueOf(item.get("법정동"));
+            Map<String, Object> actual = nativeByDong.get(dong);
+            if (actual == null) return dong + " 점수 없음";
+
+            String diff = firstFieldDiff(actual, item);
+            if (diff != null) return dong + "." + diff;
+        }
+        return null;
+    }
+
+    // 법정동별 백분위도 같은 key 집합 + 값 근사 일치해야 통과
+    private String firstPercentileDiff(Map<String, Map<String, Object>> nativePercentiles,
+                                       Map<String, Map<String, Object>> pythonPercentiles) {
+        if (!nativePercentiles.keySet().equals(pythonPercentiles.keySet())) {
+            return "백분위 법정동 " + nativePercentiles.keySet() + " != " + pythonPercentiles.keySet();
+        }
+        for (Map.Entry<String, Map<String, Object>> entry : pythonPercentiles.entrySet()) {
+            Map<String, Object> expected = entry.getValue();
+            if (expected == null) return entry.getKey() + " Python 백분위 없음";
+
+            String diff = firstFieldDiff(nativePercentiles.get(entry.getKey()), expected);
+            if (diff != null) return entry.getKey() + "." + diff;
+        }
+        return null;
+    }
+
+    // key 집합 비교 후 필드별 비교 - 숫자는 허용 오차 안, 나머지는 문자열 일치
+    private String firstFieldDiff(Map<String, Object> actual, Map<String, Object> expected) {
+        if (!actual.keySet().equals(expected.keySet())) {
+            return "필드 " + actual.keySet() + " != " + expected.keySet();
+        }
+        for (Map.Entry<String, Object> field : expected.entrySet()) {
+            Object value = actual.get(field.getKey());
+            Double expectedNumber = toDouble(field.getValue());
+            Double actualNumber = toDouble(value);
+
+            boolean same = expectedNumber != null && actualNumber != null
+                    ? Math.abs(expectedNumber - actualNumber) <= tolerance
+                    : String.valueOf(value).equals(String.valueOf(field.getValue()));
+            if (!same) {
+                return field.getKey() + " " + value + " != " + field.getValue();
+            }
+        }
+        return null;
+    }
+
+    private Table requireTable() {
+        Table t = table;
+        if (t == null) throw new IllegalStateException("지표 데이터 없음");
+        return t;
+    }
+
+    private static Integer[] sortedByScoreDesc(double[] scores) {
+        Integer[] order = new Integer[scores.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+        return order;
+    }
+
+    // 값이 value 이하인 비율(%)
+    private static double percentileOf(double[] column, int[] rows, double value) {
+        if (rows.length == 0) return 0;
+        int below = 0;
+        for (int row : rows) {
+            if (column[row] <= value) below++;
+        }
+        return below * 100.0 / rows.length;
+    }
+
+    private static double percentileOf(double[] values, double value) {
+        if (values.length == 0) return 0;
+        int below = 0;
+        for (double v : values) {
+            if (v <= value) below++;
+        }
+        return below * 100.0 / values.length;
+    }
+
+    private static Double toDouble(Object value) {
+        if (value instanceof Number number) return number.doubleValue();
+        if (value instanceof String text) {
+            try {
+                return Double.parseDouble(text);
+            } catch (NumberFormatException ignored) {}
+        }
+        return null;
+    }
+
+    // 추가 컬럼 값 - 정수/실수로 읽히면 숫자, 아니면 문자열 (Python JSON 출력과 같은 타입)
+    private static Object parseCell(String cell) {
+        try {
+            return Long.parseLong(cell);
+        } catch (NumberFormatException ignored) {}
+        try {
+            return Double.parseDouble(cell);
+        } catch (NumberFormatException ignored) {}
+        return cell;
+    }
+
+    // 법정동 x 항목 지표 (열 단위 원시 배열)
+    static final class Table {
+        private final int size;
+        private final String[] codes;
+        private final String[] dongs;
+        private final String[] gus;
+        private final double[][] values;            // [항목][행]
+        private final String[] extraNames;          // 항목 지표 외 추가 컬럼
+        private final Object[][] extraValues;       // [추가 컬럼][행]
+        private final Map<String, int[]> rowsByGu;  // 구 -> 행 번호
+
+        private Table(int size, String[] codes, String[] dongs, String[] gus, double[][] values,
+                      String[] extraNames, Object[][] extraValues) {
+            this.size = size;
+            this.codes = codes;
+            this.dongs = dongs;
+            this.gus = gus;
+            this.values = values;
+            this.extraNames = extraNames;
+            this.extraValues = extraValues;
+
+            Map<String, List<Integer>> grouped = new LinkedHashMap<>();
+            for (int row = 0; row < size; row++) {
+                grouped.computeIfAbsent(gus[row], key -> new ArrayList<>()).add(row);
+            }
+            Map<String, int[]> index = new HashMap<>();
+            grouped.forEach((gu, rows) -> index.put(gu, rows.stream().mapToInt(Integer::intValue).toArray()));
+            this.rowsByGu = index;
+        }
+
+        // 최종점수 = 항목 지표 가중 평균 (가중치 합이 0이면 0)
+        double[] weightedScores(int[] rows, int[] weights) {
+            double weightSum = 0;
+            for (int w : weights) weightSum += w;
+
+            double[] scores = new double[rows.length];
+            if (weightSum == 0) return scores;
+
+            for (int c = 0; c < values.length; c++) {
+                if (weights[c] == 0) continue;
+                double w = weights[c] / weightSum;
+                double[] column = values[c];
+                for (int i = 0; i < rows.length; i++) {
+                    scores[i] += w * column[rows[i]];
+                }
+            }
+            return scores;
+        }
+
+        int[] rowsOf(String gu) {
+            return rowsByGu.getOrDefault(gu, new int[0]);
+        }
+
+        // 헤더: 법정동코드,법정동,시군구명,안전,주거환경,환경및녹지,교통,의료,생활편의 (순서 무관) + 추가 컬럼
+        static Table load(Path csv) throws IOException {
+            List<String[]> lines = new ArrayList<>();
+            String[] header;
+            try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+                String first = reader.readLine();
+                if (first == null) throw new IOException("빈 파일");
+                header = first.replace("\uFEFF", "").split(",", -1);
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) lines.add(line.split(",", -1));
+                }
+            }
+
+            int codeCol = column(header, "법정동코드");
+            int dongCol = column(header, "법정동");
+            int guCol = column(header, "시군구명");
+            int[] categoryCols = new int[CATEGORIES.length];
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                categoryCols[c] = column(header, CATEGORIES[c]);
+            }
+
+            Set<Integer> known = new HashSet<>(List.of(codeCol, dongCol, guCol));
+            for (int col : categoryCols) known.add(col);
+            List<Integer> extraCols = new ArrayList<>();
+            for (int i = 0; i < header.length; i++) {
+                if (!known.contains(i) && !header[i].isBlank()) extraCols.add(i);
+            }
+            String[] extraNames = new String[extraCols.size()];
+            for (int e = 0; e < extraNames.length; e++) {
+                extraNames[e] = header[extraCols.get(e)].trim();
+            }
+
+            int size = lines.size();
+            String[] codes = new String[size];
+            String[] dongs = new String[size];
+            String[] gus = new String[size];
+            double[][] values = new double[CATEGORIES.length][size];
+            Object[][] extraValues = new Object[extraNames.length][size];
+
+            for (int row = 0; row < size; row++) {
+                String[] cells = lines.get(row);
+                codes[row] = cells[codeCol].trim();
+                dongs[row] = cells[dongCol].trim();
+                gus[row] = cells[guCol].trim();
+                for (int c = 0; c < CATEGORIES.length; c++) {
+                    String cell = cells[categoryCols[c]].trim();
+                    values[c][row] = cell.isEmpty() ? 0 : Double.parseDouble(cell);
+                }
+                for (int e = 0; e < extraNames.length; e++) {
+                    extraValues[e][row] = parseCell(cells[extraCols.get(e)].trim());
+                }
+            }
+            return new Table(size, codes, dongs, gus, values, extraNames, extraValues);
+        }
+
+        private static int column(String[] header, String name) throws IOException {
+            for (int i = 0; i < header.length; i++) {
+                if (header[i].trim().equals(name)) return i;
+            }
+            throw new IOException("컬럼 없음: " + name);
+        }
+    }
+}
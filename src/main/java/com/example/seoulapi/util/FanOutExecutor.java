@@ -0,0 +1,56 @@
+package com.example.seoulapi.util;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// 외부 API 병렬 호출용 공유 스레드 풀 - 요청마다 풀 생성/종료하지 않고 전역 동시 호출 수 제한
+@Component
+public class FanOutExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public FanOutExecutor(
+            @Value("${fanout.max-concurrency:32}") int maxConcurrency,
+            @Value("${fanout.queue-capacity:2000}") int queueCapacity
+    ) {
+        AtomicInteger threadSeq = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(
+                maxConcurrency,
+                maxConcurrency,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "fanout-" + threadSeq.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // 큐가 가득 차면 거부 - 호출 스레드(Tomcat/SSE)에서 외부 API를 돌리면 마감 시간을 넘기므로
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    // 거부된 작업은 RejectedExecutionException으로 실패한 future -> 호출 측은 시간 초과와 같이 처리
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
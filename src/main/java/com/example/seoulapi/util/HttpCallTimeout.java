@@ -0,0 +1,32 @@
+package com.example.seoulapi.util;
+
+import java.util.function.Supplier;
+
+// 외부 API 호출별 응답 대기 한도 - 현재 스레드에서 실행하는 호출에만 적용 (HttpClientConfig가 요청마다 읽음)
+// 마감이 있는 요청에서 남은 시간만큼만 기다리도록 할 때 사용 (기본 read-timeout 대신)
+public final class HttpCallTimeout {
+
+    private static final ThreadLocal<Long> TIMEOUT_MS = new ThreadLocal<>();
+
+    private HttpCallTimeout() {
+    }
+
+    public static <T> T within(long timeoutMs, Supplier<T> call) {
+        Long previous = TIMEOUT_MS.get();
+        TIMEOUT_MS.set(Math.max(timeoutMs, 1));
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                TIMEOUT_MS.remove();
+            } else {
+                TIMEOUT_MS.set(previous);
+            }
+        }
+    }
+
+    // 설정 안 돼 있으면 null (클라이언트 기본값 사용)
+    public static Long current() {
+        return TIMEOUT_MS.get();
+    }
+}
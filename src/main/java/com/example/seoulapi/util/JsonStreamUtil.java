@@ -0,0 +1,35 @@
+package com.example.seoulapi.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+// Jackson 스트리밍 파싱 보조 - 트리(JsonNode/Map) 생성 없이 필요한 필드만 읽기
+public class JsonStreamUtil {
+
+    // 현재 객체 안에서 name 필드를 찾아 값 토큰에 위치 (다른 필드는 건너뜀)
+    // 못 찾으면 false, 이때 파서는 해당 객체의 END_OBJECT에 위치
+    public static boolean moveToField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (name.equals(field)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    // 현재 객체의 남은 필드를 모두 건너뛰고 END_OBJECT에 위치
+    public static void skipToEndObject(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_OBJECT) {
+            if (token == JsonToken.FIELD_NAME) {
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        }
+    }
+}
@@ -1,17 +1,20 @@
 package com.example.seoulapi.util;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.example.seoulapi.model.CommuteOrigin;
+import com.example.seoulapi.model.DrivingSummary;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLEncoder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 // Kakao API 유틸
@@ -21,59 +24,67 @@ public class KakaoApiUtil {
     @Value("${kakao.api.key}")
     private String kakaoApiKey;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public KakaoApiUtil(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
 
     // 주소 -> 좌표
     public double[] getCoordinatesByAddress(String address) {
         return fetchCoordinates("https://dapi.kakao.com/v2/local/search/address.json", address);
     }
 
+    // 결과 없으면 null, 호출 오류는 예외 그대로 던짐 (지오코딩 캐시에서 '없는 주소'와 일시 오류 구분용)
+    public double[] getCoordinatesByAddressOrThrow(String address) {
+        return requestCoordinates("https://dapi.kakao.com/v2/local/search/address.json", address);
+    }
+
     // 공통 호출 로직
     private double[] fetchCoordinates(String baseUrl, String query) {
         try {
-            String apiUrl = baseUrl + "?query=" + URLEncoder.encode(query, "UTF-8");
-            URL url = new URL(apiUrl);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("Authorization", "KakaoAK " + kakaoApiKey);
-
-            BufferedReader br = new BufferedReader(new InputStreamReader(conn.getInputStream(), "UTF-8"));
-            StringBuilder sb = new StringBuilder();
-            String line;
-            while ((line = br.readLine()) != null) sb.append(line);
-            br.close();
-
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(sb.toString());
-            JsonNode docs = root.path("documents");
-
-            if (docs.isArray() && docs.size() > 0) {
-                JsonNode first = docs.get(0);
-                double x = first.path("x").asDouble(); // 경도
-                double y = first.path("y").asDouble(); // 위도
-                return new double[]{x, y};
-            } else {
-                System.out.println("[KakaoApiUtil] 검색 결과 없음: " + query);
-            }
+            return requestCoordinates(baseUrl, query);
         } catch (Exception e) {
             e.printStackTrace();
         }
         return null;
     }
 
+    private double[] requestCoordinates(String baseUrl, String query) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl)
+                .queryParam("query", query)
+                .encode(StandardCharsets.UTF_8)
+                .build()
+                .toUri();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "KakaoAK " + kakaoApiKey);
+
+        // documents[0]의 x, y만 스트리밍으로 추출
+        double[] coords = restTemplate.execute(uri, HttpMethod.GET,
+                request -> request.getHeaders().putAll(headers),
+                response -> readFirstDocumentCoords(response.getBody()));
+
+        if (coords == null) {
+            System.out.println("[KakaoApiUtil] 검색 결과 없음: " + query);
+        }
+        return coords;
+    }
+
     // 다중 출발지 길찾기 - 각 매물 id별 거리(m), 시간(초) 반환
-    public Map<String, Map<String, Integer>> getDrivingTimes(
-            List<Map<String, Object>> origins, double destLng, double destLat
+    public Map<Long, DrivingSummary> getDrivingTimes(
+            List<CommuteOrigin> origins, double destLng, double destLat
     ) {
         String url = "https://apis-navi.kakaomobility.com/v1/origins/directions";
 
-        List<Map<String, Object>> updatedOrigins = new ArrayList<>();
-        for (Map<String, Object> o : origins) {
+        List<Map<String, Object>> updatedOrigins = new ArrayList<>(origins.size());
+        for (CommuteOrigin o : origins) {
             Map<String, Object> origin = new HashMap<>();
-            origin.put("x", o.get("lng"));
-            origin.put("y", o.get("lat"));
+            origin.put("x", o.lng());
+            origin.put("y", o.lat());
             origin.put("radius", 10000);
-            origin.put("key", o.get("id"));
+            origin.put("key", String.valueOf(o.id()));
             updatedOrigins.add(origin);
         }
 
@@ -89,40 +100,12 @@ public class KakaoApiUtil {
         HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
 
         try {
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
-            Map<String, Object> responseBody = response.getBody();
-            System.out.println("[DEBUG] KakaoMobility Response: " + responseBody);
-
+            // routes[].key / summary만 스트리밍으로 추출
+            Map<Long, DrivingSummary> commuteMap = restTemplate.execute(url, HttpMethod.POST,
+                    restTemplate.httpEntityCallback(entity),
+                    response -> readRoutesByKey(response.getBody()));
 
-            if (responseBody == null || !responseBody.containsKey("routes"))
-                return Collections.emptyMap();
-
-            List<Map<String, Object>> routes = (List<Map<String, Object>>) responseBody.get("routes");
-            Map<String, Map<String, Integer>> commuteMap = new HashMap<>();
-
-            for (Map<String, Object> route : routes) {
-                String key = (String) route.get("key");
-
-                if (!route.containsKey("summary") || route.get("summary") == null) {
-                    System.out.println("[KakaoApiUtil] summary 없음 (key=" + key + ")");
-                    continue;
-                }
-
-                Map<String, Object> summary = (Map<String, Object>) route.get("summary");
-
-                Number distanceNum = (Number) summary.get("distance");
-                Number durationNum = (Number) summary.get("duration");
-
-                int distance = distanceNum.intValue();
-                int duration = durationNum.intValue();
-
-                commuteMap.put(key, Map.of(
-                        "distance", distance,
-                        "duration", duration
-                ));
-            }
-
-            return commuteMap;
+            return commuteMap == null ? Collections.emptyMap() : commuteMap;
         } catch (Exception e) {
             e.printStackTrace();
             return Collections.emptyMap();
@@ -130,8 +113,8 @@ public class KakaoApiUtil {
     }
 
     // 단일 출발지 길찾기
-    public Map<String, Integer> getDrivingSingle(double startLng, double startLat,
-                                                 double destLng, double destLat) {
+    public DrivingSummary getDrivingSingle(double startLng, double startLat,
+                                           double destLng, double destLat) {
 
         try {
             String url = String.format(
@@ -142,31 +125,122 @@ public class KakaoApiUtil {
             HttpHeaders headers = new HttpHeaders();
             headers.set("Authorization", "KakaoAK " + kakaoApiKey);
 
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
+            // routes[0].summary만 스트리밍으로 추출
+            return restTemplate.execute(url, HttpMethod.GET,
+                    request -> request.getHeaders().putAll(headers),
+                    response -> readFirstRouteSummary(response.getBody()));
 
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, Map.class
-            );
+        } catch (Exception e) {
+            System.err.println("[KakaoApiUtil] 단일 경로 호출 실패: " + e.getMessage());
+            return null;
+        }
+    }
 
-            Map<String, Object> resp = response.getBody();
-            if (resp == null || !resp.containsKey("routes")) return null;
+    // documents[0] -> {x(경도), y(위도)}, 결과 없으면 null
+    private double[] readFirstDocumentCoords(InputStream body) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+
+            if (!JsonStreamUtil.moveToField(parser, "documents")
+                    || parser.currentToken() != JsonToken.START_ARRAY) return null;
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+
+            // x, y는 문자열로 내려옴
+            Double x = null;
+            Double y = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("x".equals(field)) {
+                    x = parser.getValueAsDouble();
+                } else if ("y".equals(field)) {
+                    y = parser.getValueAsDouble();
+                } else {
+                    parser.skipChildren();
+                }
+                if (x != null && y != null) return new double[]{x, y};
+            }
+            return null;
+        }
+    }
 
-            List<Map<String, Object>> routes = (List<Map<String, Object>>) resp.get("routes");
-            if (routes.isEmpty()) return null;
+    // 다중 출발지 응답 -> key별 거리(m), 시간(초)
+    private Map<Long, DrivingSummary> readRoutesByKey(InputStream body) throws IOException {
+        Map<Long, DrivingSummary> commuteMap = new HashMap<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return commuteMap;
+
+            if (!JsonStreamUtil.moveToField(parser, "routes")
+                    || parser.currentToken() != JsonToken.START_ARRAY) return commuteMap;
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String key = null;
+                DrivingSummary summary = null;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("key".equals(field)) {
+                        key = parser.getValueAsString();
+                    } else if ("summary".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                        summary = readSummary(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
 
-            Map<String, Object> summary = (Map<String, Object>) routes.get(0).get("summary");
+                if (summary == null) {
+                    System.out.println("[KakaoApiUtil] summary 없음 (key=" + key + ")");
+                    continue;
+                }
+                if (key == null) continue;
+                try {
+                    commuteMap.put(Long.parseLong(key), summary);
+                } catch (NumberFormatException e) {
+                    System.out.println("[KakaoApiUtil] 알 수 없는 key: " + key);
+                }
+            }
+        }
+        return commuteMap;
+    }
 
-            int distance = ((Number) summary.get("distance")).intValue();
-            int duration = ((Number) summary.get("duration")).intValue();
+    // 단일 경로 응답 -> routes[0].summary, 경로 없으면 null
+    private DrivingSummary readFirstRouteSummary(InputStream body) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
 
-            return Map.of(
-                    "distance", distance,
-                    "duration", duration
-            );
+            if (!JsonStreamUtil.moveToField(parser, "routes")
+                    || parser.currentToken() != JsonToken.START_ARRAY) return null;
 
-        } catch (Exception e) {
-            System.err.println("[KakaoApiUtil] 단일 경로 호출 실패: " + e.getMessage());
-            return null;
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+
+            if (!JsonStreamUtil.moveToField(parser, "summary")
+                    || parser.currentToken() != JsonToken.START_OBJECT) return null;
+
+            return readSummary(parser);
         }
     }
+
+    // summary 객체(START_OBJECT 위치)에서 distance, duration만 읽고 객체 끝까지 이동
+    private DrivingSummary readSummary(JsonParser parser) throws IOException {
+        int distance = -1;
+        int duration = -1;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("distance".equals(field)) {
+                distance = parser.getValueAsInt(-1);
+            } else if ("duration".equals(field)) {
+                duration = parser.getValueAsInt(-1);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (distance < 0 || duration < 0) return null;
+        return new DrivingSummary(distance, duration);
+    }
 }
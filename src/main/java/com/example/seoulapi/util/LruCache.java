@@ -0,0 +1,98 @@
+package com.example.seoulapi.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 크기 제한 + 항목별 TTL을 가진 인메모리 LRU 캐시
+public class LruCache<K, V> {
+
+    private final int maxSize;
+    private final LinkedHashMap<K, CacheEntry<V>> map;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public LruCache(int maxSize) {
+        this.maxSize = maxSize;
+        // accessOrder = true -> 가장 오래 안 쓰인 항목부터 제거
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                return size() > LruCache.this.maxSize;
+            }
+        };
+    }
+
+    // 만료된 항목은 없는 것으로 처리
+    public synchronized V get(K key) {
+        CacheEntry<V> entry = map.get(key);
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            map.remove(key);
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value, long ttlMillis) {
+        map.put(key, new CacheEntry<>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public synchronized void remove(K key) {
+        map.remove(key);
+    }
+
+    // 만료된 항목 일괄 제거 - 제거한 수 반환
+    public synchronized int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = map.size();
+        map.values().removeIf(entry -> entry.expiresAt < now);
+        return before - map.size();
+    }
+
+    // 가장 오래 안 쓰인 항목 제거 후 반환 (비어 있으면 null)
+    public synchronized V removeEldest() {
+        Iterator<CacheEntry<V>> it = map.values().iterator();
+        if (!it.hasNext()) return null;
+        V value = it.next().value;
+        it.remove();
+        return value;
+    }
+
+    // 현재 값 스냅샷 (접근 순서는 바꾸지 않음, 만료 여부 무관)
+    public synchronized List<V> values() {
+        List<V> values = new ArrayList<>(map.size());
+        for (CacheEntry<V> entry : map.values()) {
+            values.add(entry.value);
+        }
+        return values;
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private record CacheEntry<V>(V value, long expiresAt) {
+    }
+}
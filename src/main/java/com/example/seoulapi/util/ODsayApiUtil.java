@@ -1,13 +1,18 @@
 package com.example.seoulapi.util;
 
+import com.example.seoulapi.model.CommuteOrigin;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonNode;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 
 @Component
@@ -17,18 +22,22 @@ public class ODsayApiUtil {
     private String odsayApiKey;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+
+    public ODsayApiUtil(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
 
 
     // 추천 리스트용 - 소요 시간만 반환
-    public Map<String, Integer> getTransitSummary(
-            List<Map<String, Object>> origins, double destLng, double destLat
+    public Map<Long, Integer> getTransitSummary(
+            List<CommuteOrigin> origins, double destLng, double destLat
     ) {
-        Map<String, Integer> result = new HashMap<>();
+        Map<Long, Integer> result = new HashMap<>();
 
-        for (Map<String, Object> origin : origins) {
-            double startX = (double) origin.get("lng");
-            double startY = (double) origin.get("lat");
+        for (CommuteOrigin origin : origins) {
+            double startX = origin.lng();
+            double startY = origin.lat();
 
             String url = String.format(
                     "https://api.odsay.com/v1/api/searchPubTransPathT?SX=%f&SY=%f&EX=%f&EY=%f"
@@ -39,17 +48,12 @@ public class ODsayApiUtil {
             );
 
             try {
-                ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-                Map<String, Object> body = response.getBody();
-                if (body == null || !body.containsKey("result")) continue;
+                // 첫 번째 경로의 totalTime만 스트리밍으로 추출
+                Integer totalTime = restTemplate.execute(url, HttpMethod.GET, null,
+                        response -> readTotalTime(response.getBody(), true));
+                if (totalTime == null) continue;
 
-                Map<String, Object> resultObj = (Map<String, Object>) body.get("result");
-                List<Map<String, Object>> paths = (List<Map<String, Object>>) resultObj.get("path");
-                if (paths == null || paths.isEmpty()) continue;
-
-                Map<String, Object> info = (Map<String, Object>) paths.get(0).get("info");
-                int totalTime = ((Number) info.get("totalTime")).intValue();
-                result.put((String) origin.get("id"), totalTime);
+                result.put(origin.id(), totalTime);
 
             } catch (Exception e) {
                 System.err.println("[ODsayApiUtil] Summary API 호출 실패: " + e.getMessage());
@@ -137,27 +141,50 @@ public class ODsayApiUtil {
                 + "&apiKey=" + odsayApiKey;
 
         try {
-            String json = restTemplate.getForObject(url, String.class);
+            // 응답 전체를 String/트리로 만들지 않고 path[].info.totalTime만 스트리밍으로 읽음
+            return restTemplate.execute(url, HttpMethod.GET, null,
+                    response -> readTotalTime(response.getBody(), false));
+
+        } catch (Exception e) {
+            System.err.println("[ODsayApiUtil] getTransitSingle 실패: " + e.getMessage());
+            return null;
+        }
+    }
 
-            JsonNode root = objectMapper.readTree(json);
+    // result.path[].info.totalTime 추출 - firstOnly면 첫 경로, 아니면 최소값 (경로 없으면 null)
+    private Integer readTotalTime(InputStream body, boolean firstOnly) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
 
-            if (!root.has("result")) return null;   // result 없을 시 경로 없음 처리
+            // result 없을 시 경로 없음 처리 (error 응답 등)
+            if (!JsonStreamUtil.moveToField(parser, "result")
+                    || parser.currentToken() != JsonToken.START_OBJECT) return null;
 
-            JsonNode paths = root.get("result").get("path");
-            if (paths == null || !paths.isArray() || paths.size() == 0) return null;
+            if (!JsonStreamUtil.moveToField(parser, "path")
+                    || parser.currentToken() != JsonToken.START_ARRAY) return null;
 
             int minTime = Integer.MAX_VALUE;
-
-            for (JsonNode path : paths) {
-                int time = path.get("info").get("totalTime").asInt();
-                minTime = Math.min(minTime, time);
+            boolean found = false;
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                // path[i] 안에서 info 탐색, 못 찾으면 이미 path[i]의 끝
+                if (!JsonStreamUtil.moveToField(parser, "info")) continue;
+
+                if (parser.currentToken() == JsonToken.START_OBJECT) {
+                    if (JsonStreamUtil.moveToField(parser, "totalTime")) {
+                        minTime = Math.min(minTime, parser.getValueAsInt(Integer.MAX_VALUE));
+                        found = true;
+                        JsonStreamUtil.skipToEndObject(parser); // info 끝
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+
+                if (found && firstOnly) return minTime;
+                JsonStreamUtil.skipToEndObject(parser); // path[i] 끝
             }
 
-            return minTime;
-
-        } catch (Exception e) {
-            System.err.println("[ODsayApiUtil] getTransitSingle 실패: " + e.getMessage());
-            return null;
+            return found ? minTime : null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,330 @@
+package com.example.seoulapi.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// 상주형 Python 점수 계산 워커 풀 - scoring_worker.py 프로세스를 띄워 두고 한 줄 JSON으로 요청/응답
+@Component
+public class ScoringWorkerPool {
+
+    private static final String WORKER_SCRIPT = "scoring_worker.py";
+    private static final long PING_TIMEOUT_MS = 2000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String pythonCommand;
+    private final File moduleDir;
+    private final int poolSize;
+    private final long timeoutMs;
+    private final long batchTimeoutMs;
+
+    // 워커 호출을 비동기로 돌릴 때 쓰는 전용 스레드 - 워커 수만큼이면 충분 (외부 API용 FanOutExecutor와 분리)
+    private final ThreadPoolExecutor executor;
+
+    private final BlockingQueue<Worker> idle;
+    private final Set<Worker> all = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger workerSeq = new AtomicInteger();
+    private final AtomicLong requestSeq = new AtomicLong();
+    private final AtomicLong restarts = new AtomicLong();
+
+    private volatile boolean closed = false;
+
+    // 워커는 스크립트 모듈을 import해 두므로 AI 모듈이 바뀌면 세대를 올려 기존 워커를 교체
+    private volatile int generation = 0;
+
+    public ScoringWorkerPool(
+            @Value("${scoring.worker.python:python3}") String pythonCommand,
+            @Value("${scoring.worker.dir:src/main/resources/ai_module}") String moduleDir,
+            @Value("${scoring.worker.pool-size:2}") int poolSize,
+            @Value("${scoring.worker.timeout-ms:10000}") long timeoutMs,
+            @Value("${scoring.worker.batch-timeout-ms:30000}") long batchTimeoutMs,
+            @Value("${scoring.worker.queue-capacity:20}") int queueCapacity
+    ) {
+        this.pythonCommand = pythonCommand;
+        this.moduleDir = new File(moduleDir).getAbsoluteFile();
+        this.poolSize = poolSize;
+        this.timeoutMs = timeoutMs;
+        this.batchTimeoutMs = batchTimeoutMs;
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+
+        AtomicInteger threadSeq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "scoring-" + threadSeq.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // 가득 차면 거절 -> 호출 측에서 동기 실행으로 대체
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    // 워커 호출 작업을 전용 스레드에서 실행 - 대기열이 가득 차면 RejectedExecutionException
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    // 스크립트 실행 후 stdout 출력(JSON 문자열) 반환
+    public String execute(String script, List<String> args) {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("script", script);
+        request.put("args", args);
+
+        return send(request, script, timeoutMs).path("output").asText("");
+    }
+
+    // 같은 스크립트를 인자 묶음별로 한 번의 요청에 실행 - 출력은 argsList 순서대로
+    public List<String> executeBatch(String script, List<List<String>> argsList) {
+        if (argsList.isEmpty()) return List.of();
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("script", script);
+        request.put("args_list", argsList);
+
+        // 항목 수만큼 실행 시간이 늘어나므로 대기 한도도 비례하되 batch-timeout-ms를 넘지 않음
+        long waitMs = Math.min(timeoutMs * argsList.size(), Math.max(batchTimeoutMs, timeoutMs));
+        JsonNode outputs = send(request, script, waitMs).path("outputs");
+
+        List<String> results = new ArrayList<>(argsList.size());
+        for (int i = 0; i < argsList.size(); i++) {
+            JsonNode item = outputs.path(i);
+            if (!item.path("ok").asBoolean(false)) {
+                throw new IllegalStateException(script + " 실행 오류 " + argsList.get(i) + ": " + item.path("error").asText());
+            }
+            results.add(item.path("output").asText(""));
+        }
+        return results;
+    }
+
+    // 워커 하나 빌려 요청/응답 - 워커가 죽어 있으면 새 워커로 한 번 재시도
+    private JsonNode send(Map<String, Object> request, String script, long waitMs) {
+        for (int attempt = 1; ; attempt++) {
+            Worker worker = borrow();
+            boolean healthy = false;
+            try {
+                JsonNode response = worker.call(request, waitMs);
+                healthy = true;
+                if (!response.path("ok").asBoolean(false)) {
+                    throw new IllegalStateException(script + " 실행 오류: " + response.path("error").asText());
+                }
+                return response;
+
+            } catch (IOException | TimeoutException e) {
+                // 통신 오류/시간 초과 -> 워커 폐기 (다음 borrow에서 새로 띄움)
+                if (attempt >= 2 || e instanceof TimeoutException) {
+                    throw new IllegalStateException("점수 계산 워커 응답 없음: " + e.getMessage(), e);
+                }
+                System.err.println("[ScoringWorkerPool] 워커 통신 오류, 재시도: " + e.getMessage());
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("점수 계산 대기 중 중단됨", e);
+
+            } finally {
+                release(worker, healthy);
+            }
+        }
+    }
+
+    // 유휴 워커 주기적 ping - 응답 없으면 교체
+    @Scheduled(fixedDelayString = "${scoring.worker.health-interval-ms:30000}")
+    public void healthCheck() {
+        List<Worker> checking = new ArrayList<>();
+        idle.drainTo(checking);
+
+        for (Worker worker : checking) {
+            boolean healthy = false;
+            try {
+                healthy = worker.call(Map.of("cmd", "ping"), PING_TIMEOUT_MS).path("pong").asBoolean(false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("[ScoringWorkerPool] " + worker.name + " ping 실패: " + e.getMessage());
+            }
+            release(worker, healthy);
+        }
+    }
+
+    // 유휴 워커는 바로 종료, 사용 중인 워커는 반납 시 종료 (다음 요청부터 새 모듈로 실행)
+    public void recycle() {
+        generation++;
+        List<Worker> stale = new ArrayList<>();
+        idle.drainTo(stale);
+        stale.forEach(this::discard);
+        System.out.println("[ScoringWorkerPool] AI 모듈 변경 -> 워커 교체 (" + stale.size() + "개 즉시 종료)");
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("poolSize", poolSize);
+        status.put("workers", all.size());
+        status.put("idle", idle.size());
+        status.put("restarts", restarts.get());
+        status.put("queued", executor.getQueue().size());
+        return status;
+    }
+
+    private Worker borrow() {
+        if (closed) throw new IllegalStateException("점수 계산 워커 풀 종료됨");
+
+        Worker worker = idle.poll();
+        if (worker != null && worker.isAlive()) return worker;
+        if (worker != null) discard(worker);
+
+        // 풀 크기 이하면 새로 띄움
+        synchronized (this) {
+            if (all.size() < poolSize) {
+                return spawn();
+            }
+        }
+
+        try {
+            worker = idle.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("점수 계산 워커 대기 중 중단됨", e);
+        }
+        if (worker == null) {
+            throw new IllegalStateException("점수 계산 워커 대기 시간 초과");
+        }
+        if (!worker.isAlive()) {
+            discard(worker);
+            synchronized (this) {
+                return spawn();
+            }
+        }
+        return worker;
+    }
+
+    private void release(Worker worker, boolean healthy) {
+        if (healthy && worker.isAlive() && !closed && worker.generation == generation) {
+            idle.offer(worker);
+        } else {
+            discard(worker);
+        }
+    }
+
+    // synchronized(this) 안에서 호출
+    private Worker spawn() {
+        try {
+            Worker worker = new Worker("scoring-worker-" + workerSeq.incrementAndGet());
+            all.add(worker);
+            if (workerSeq.get() > poolSize) restarts.incrementAndGet();
+            return worker;
+        } catch (IOException e) {
+            throw new IllegalStateException("점수 계산 워커 시작 실패: " + e.getMessage(), e);
+        }
+    }
+
+    private void discard(Worker worker) {
+        if (all.remove(worker)) {
+            System.err.println("[ScoringWorkerPool] 워커 종료: " + worker.name);
+        }
+        worker.destroy();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        executor.shutdownNow();
+        for (Worker worker : all) {
+            worker.destroy();
+        }
+        all.clear();
+        idle.clear();
+    }
+
+    // Python 프로세스 1개 - 한 번에 요청 1건만 처리 (풀에서 빌려 쓰는 동안 독점)
+    private class Worker {
+        private final String name;
+        private final int generation = ScoringWorkerPool.this.generation;
+        private final Process process;
+        private final BufferedWriter stdin;
+        private final BlockingQueue<String> responses = new LinkedBlockingQueue<>();
+
+        Worker(String name) throws IOException {
+            this.name = name;
+
+            ProcessBuilder pb = new ProcessBuilder(pythonCommand, "-u", new File(moduleDir, WORKER_SCRIPT).getPath());
+            pb.directory(moduleDir);
+            pb.environment().put("PYTHONIOENCODING", "utf-8");
+            this.process = pb.start();
+            this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+
+            // stdout(응답 줄) 수신 -> 큐, stderr -> 로그
+            daemon(name + "-out", () -> {
+                try (BufferedReader out = new BufferedReader(
+                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = out.readLine()) != null) {
+                        responses.offer(line);
+                    }
+                } catch (IOException ignored) {}
+            });
+            daemon(name + "-err", () -> {
+                try (BufferedReader err = new BufferedReader(
+                        new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                    err.lines().forEach(line -> System.err.println("[PYTHON ERR] " + line));
+                } catch (IOException ignored) {}
+            });
+
+            System.out.println("[ScoringWorkerPool] 워커 시작: " + name + " (pid " + process.pid() + ")");
+        }
+
+        JsonNode call(Map<String, Object> request, long waitMs)
+                throws IOException, TimeoutException, InterruptedException {
+            long id = requestSeq.incrementAndGet();
+            Map<String, Object> message = new LinkedHashMap<>(request);
+            message.put("id", id);
+
+            stdin.write(objectMapper.writeValueAsString(message));
+            stdin.newLine();
+            stdin.flush();
+
+            long deadline = System.currentTimeMillis() + waitMs;
+            while (true) {
+                long remaining = deadline - System.currentTimeMillis();
+                String line = remaining > 0 ? responses.poll(remaining, TimeUnit.MILLISECONDS) : null;
+                if (line == null) {
+                    if (!process.isAlive()) throw new IOException(name + " 프로세스 종료됨");
+                    throw new TimeoutException(name + " 응답 시간 초과 (" + waitMs + "ms)");
+                }
+
+                JsonNode response = objectMapper.readTree(line);
+                if (response.path("id").asLong(-1) == id) return response;
+                // 이전 요청의 늦은 응답은 버림
+            }
+        }
+
+        boolean isAlive() {
+            return process.isAlive();
+        }
+
+        void destroy() {
+            process.destroyForcibly();
+        }
+
+        private void daemon(String threadName, Runnable task) {
+            Thread thread = new Thread(task, threadName);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.seoulapi.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+
+// 서울시 부동산 전월세가 정보 Open API 유틸
+@Component
+public class SeoulApiUtil {
+
+    private static final String BASE_URL = "http://openapi.seoul.go.kr:8088/";
+    private static final String SERVICE_NAME = "tbLnOpendataRentV";
+
+    @Value("${seoul.api.key}")
+    private String seoulApiKey;
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public SeoulApiUtil(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    // 접수연도별 총 데이터 개수
+    public int fetchTotalCount(int year) {
+        return fetch(year, 1, 1).path(SERVICE_NAME).path("list_total_count").asInt();
+    }
+
+    // 접수연도별 start~end 구간 row 배열 (없으면 MissingNode)
+    public JsonNode fetchRows(int year, int start, int end) {
+        return fetch(year, start, end).path(SERVICE_NAME).path("row");
+    }
+
+    private JsonNode fetch(int year, int start, int end) {
+        String url = BASE_URL + seoulApiKey + "/json/" + SERVICE_NAME + "/"
+                + start + "/" + end
+                + "?RCPT_YR=" + year;
+
+        // 응답 스트림에서 바로 트리 생성 (String 중간 복사 없음)
+        JsonNode root = restTemplate.execute(URI.create(url), HttpMethod.GET, null,
+                response -> objectMapper.readTree(response.getBody()));
+        return root == null ? objectMapper.missingNode() : root;
+    }
+}
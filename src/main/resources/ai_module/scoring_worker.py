@@ -0,0 +1,138 @@
+"""상주형 점수 계산 워커.
+
+백엔드(ScoringWorkerPool)가 프로세스를 띄워 두고 stdin/stdout으로 한 줄짜리 JSON을 주고받는다.
+매 요청마다 인터프리터를 새로 띄우지 않으므로 시작 비용과 라이브러리 import 비용이 한 번만 든다.
+
+요청:  {"id": 1, "script": "score_model.py", "args": ["{...weights...}", "강남구"]}
+       {"id": 2, "script": "compute_percentile.py", "args_list": [["{...}", "강남구", "역삼동"], ...]}
+       {"id": 3, "cmd": "ping"}
+응답:  {"id": 1, "ok": true, "output": "<스크립트가 stdout으로 출력한 JSON 문자열>"}
+       {"id": 2, "ok": true, "outputs": [{"ok": true, "output": "..."}, {"ok": false, "error": "..."}, ...]}
+       {"id": 3, "ok": true, "pong": true}
+       {"id": 1, "ok": false, "error": "..."}
+"""
+import contextlib
+import importlib.util
+import io
+import json
+import os
+import runpy
+import sys
+import traceback
+
+BASE_DIR = os.path.dirname(os.path.abspath(__file__))
+
+# 실행 허용 스크립트
+ALLOWED_SCRIPTS = {"score_model.py", "compute_percentile.py"}
+
+# 요청마다 호출할 진입 함수 이름 (스크립트의 `if __name__ == "__main__": main()`과 같은 함수)
+ENTRY_FUNCTION = "main"
+
+# 스크립트별 진입 함수 - 모듈은 처음 요청 때 한 번만 import (모듈 최상단의 데이터 적재도 한 번)
+# 진입 함수가 없는 스크립트는 None -> 요청마다 runpy로 스크립트 전체를 다시 실행
+_entries = {}
+
+
+def load_entry(script):
+    if script in _entries:
+        return _entries[script]
+
+    path = os.path.join(BASE_DIR, script)
+    entry = None
+
+    # __main__ 가드가 없는 스크립트는 import만 해도 CLI 코드가 실행되므로 import하지 않음
+    with open(path, encoding="utf-8") as f:
+        source = f.read()
+    if f"def {ENTRY_FUNCTION}(" in source and "__main__" in source:
+        name = "ai_module_" + os.path.splitext(script)[0]
+        spec = importlib.util.spec_from_file_location(name, path)
+        module = importlib.util.module_from_spec(spec)
+        try:
+            # 모듈 최상단 출력이 응답 줄에 섞이지 않도록 stderr로
+            with contextlib.redirect_stdout(sys.stderr):
+                spec.loader.exec_module(module)  # __name__ != "__main__" 이라 CLI 부분은 실행되지 않음
+            entry = getattr(module, ENTRY_FUNCTION, None)
+        except (Exception, SystemExit):
+            # import 실패도 None으로 캐시 -> 매 요청 재import 대신 runpy로 실행 (로그는 한 번만)
+            print(f"[scoring_worker] {script}: import 실패 -> 요청마다 스크립트 전체 실행", file=sys.stderr)
+            traceback.print_exc(file=sys.stderr)
+            _entries[script] = None
+            return None
+        if not callable(entry):
+            entry = None
+
+    if entry is None:
+        print(f"[scoring_worker] {script}: {ENTRY_FUNCTION}() 없음 -> 요청마다 스크립트 전체 실행", file=sys.stderr)
+    _entries[script] = entry
+    return entry
+
+
+def run_script(script, args):
+    """스크립트를 이 프로세스 안에서 실행하고 stdout 출력을 반환 (인자는 기존처럼 sys.argv로 전달)."""
+    path = os.path.join(BASE_DIR, script)
+    entry = load_entry(script)
+    buffer = io.StringIO()
+    old_argv = sys.argv
+    sys.argv = [path] + [str(arg) for arg in args]
+    try:
+        with contextlib.redirect_stdout(buffer):
+            try:
+                if entry is not None:
+                    entry()
+                else:
+                    runpy.run_path(path, run_name="__main__")
+            except SystemExit as e:
+                if e.code not in (None, 0):
+                    raise RuntimeError(f"{script} exited with {e.code}")
+    finally:
+        sys.argv = old_argv
+    return buffer.getvalue()
+
+
+def handle(request):
+    if request.get("cmd") == "ping":
+        return {"ok": True, "pong": True}
+
+    script = request.get("script")
+    if script not in ALLOWED_SCRIPTS:
+        raise ValueError(f"unknown script: {script}")
+
+    # 여러 인자 묶음을 한 번의 요청으로 실행 (항목별 성공/실패)
+    if "args_list" in request:
+        outputs = []
+        for args in request["args_list"]:
+            try:
+                outputs.append({"ok": True, "output": run_script(script, args)})
+            except Exception as e:
+                traceback.print_exc(file=sys.stderr)
+                outputs.append({"ok": False, "error": str(e)})
+        return {"ok": True, "outputs": outputs}
+
+    return {"ok": True, "output": run_script(script, request.get("args", []))}
+
+
+def main():
+    os.chdir(BASE_DIR)
+    out = sys.stdout  # 스크립트 출력은 버퍼로 가로채므로 응답용 stdout은 따로 잡아 둠
+
+    for line in sys.stdin:
+        line = line.strip()
+        if not line:
+            continue
+
+        request_id = None
+        try:
+            request = json.loads(line)
+            request_id = request.get("id")
+            response = handle(request)
+        except Exception as e:
+            traceback.print_exc(file=sys.stderr)
+            response = {"ok": False, "error": str(e)}
+
+        response["id"] = request_id
+        out.write(json.dumps(response, ensure_ascii=False) + "\n")
+        out.flush()
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,5 @@
+-- 1) 체크포인트 기록 당시의 연도 총 건수
+--    페이지는 오프셋 단위라 총 건수가 바뀌면(원천 데이터 추가/삭제) 같은 오프셋이 다른 행을 가리킴
+--    기존 행은 NULL -> 다음 적재에서 무효화 후 다시 조회 (중복은 api_id로 걸러짐)
+ALTER TABLE ingestion_checkpoint
+    ADD COLUMN IF NOT EXISTS total_count INT;
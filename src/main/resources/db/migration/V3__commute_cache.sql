@@ -0,0 +1,15 @@
+-- 1) 통근시간 캐시 테이블 (매물 id + 목적지 셀 + 교통수단)
+CREATE TABLE IF NOT EXISTS commute_cache (
+    cache_key    VARCHAR(100) PRIMARY KEY,
+    room_id      BIGINT      NOT NULL,
+    dest_cell    VARCHAR(40) NOT NULL,
+    mode         VARCHAR(20) NOT NULL,
+    duration_min INT         NOT NULL,
+    method       VARCHAR(20) NOT NULL,
+    created_at   TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    expires_at   TIMESTAMPTZ NOT NULL
+);
+
+-- 2) 만료 캐시 정리용 인덱스
+CREATE INDEX IF NOT EXISTS idx_commute_cache_expires_at
+    ON commute_cache (expires_at);
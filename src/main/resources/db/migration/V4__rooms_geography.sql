@@ -0,0 +1,33 @@
+-- 1) PostGIS 확장
+CREATE EXTENSION IF NOT EXISTS postgis;
+
+-- 2) 좌표 geography 컬럼 추가 (WGS84)
+ALTER TABLE rooms
+    ADD COLUMN IF NOT EXISTS geog geography(Point, 4326);
+
+-- 3) 기존 좌표 채우기 (x: 경도, y: 위도)
+UPDATE rooms
+SET geog = ST_SetSRID(ST_MakePoint(x, y), 4326)::geography
+WHERE x IS NOT NULL AND x <> 0
+  AND y IS NOT NULL AND y <> 0;
+
+-- 4) x/y 변경 시 geog 자동 동기화 (JPA/벌크 적재 모두 적용)
+CREATE OR REPLACE FUNCTION rooms_sync_geog() RETURNS trigger AS $$
+BEGIN
+    IF NEW.x IS NOT NULL AND NEW.x <> 0 AND NEW.y IS NOT NULL AND NEW.y <> 0 THEN
+        NEW.geog := ST_SetSRID(ST_MakePoint(NEW.x, NEW.y), 4326)::geography;
+    ELSE
+        NEW.geog := NULL;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_rooms_sync_geog ON rooms;
+CREATE TRIGGER trg_rooms_sync_geog
+    BEFORE INSERT OR UPDATE OF x, y ON rooms
+    FOR EACH ROW EXECUTE FUNCTION rooms_sync_geog();
+
+-- 5) 최근접/반경 검색용 GiST 인덱스
+CREATE INDEX IF NOT EXISTS idx_rooms_geog
+    ON rooms USING GIST (geog);
@@ -0,0 +1,14 @@
+-- 1) 서울시 전월세 적재 체크포인트 (접수연도 + 페이지 시작 번호 단위)
+CREATE TABLE IF NOT EXISTS ingestion_checkpoint (
+    checkpoint_key VARCHAR(40) PRIMARY KEY,
+    receipt_year   INT         NOT NULL,
+    page_start     INT         NOT NULL,
+    page_end       INT         NOT NULL,
+    status         VARCHAR(20) NOT NULL,   -- DONE or FAILED
+    row_count      INT         NOT NULL DEFAULT 0,
+    updated_at     TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- 2) 재개 시 연도별 완료 페이지 조회용
+CREATE INDEX IF NOT EXISTS idx_ingestion_checkpoint_year_status
+    ON ingestion_checkpoint (receipt_year, status);
@@ -0,0 +1,15 @@
+-- 1) 주소 단위 지오코딩 결과 캐시 (key: AddressUtil.clean 결과)
+CREATE TABLE IF NOT EXISTS geocode_cache (
+    address_key VARCHAR(300) PRIMARY KEY,
+    x           DOUBLE PRECISION,
+    y           DOUBLE PRECISION,
+    found       BOOLEAN     NOT NULL,
+    source      VARCHAR(20) NOT NULL,
+    created_at  TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    expires_at  TIMESTAMPTZ            -- 좌표 못 찾은 주소만 만료 (NULL이면 만료 x)
+);
+
+-- 2) 같은 주소 미좌표 매물 일괄 반영용 인덱스
+CREATE INDEX IF NOT EXISTS idx_rooms_address_full_pending
+    ON rooms (address_full)
+    WHERE (x IS NULL OR y IS NULL);
@@ -0,0 +1,7 @@
+-- 1) 서울시 전월세 증분 동기화 기준점 (접수연도별 마지막 총 건수 + 최신 계약일)
+CREATE TABLE IF NOT EXISTS sync_watermark (
+    receipt_year INT PRIMARY KEY,
+    total_count  INT         NOT NULL,
+    max_ctrt_day VARCHAR(8),             -- yyyyMMdd
+    updated_at   TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,18 @@
+-- 매물 복합 검색(/api/rent/search)용 인덱스
+-- 구/동 + 전월세 구분으로 좁힌 뒤 보증금/월세 범위 탐색
+
+-- 1) 동 단위 검색: 구 + 동 + 전월세 + 보증금
+CREATE INDEX IF NOT EXISTS idx_rooms_gu_dong_rent_type_deposit
+    ON rooms (gu, dong, rent_type, deposit);
+
+-- 2) 동 단위 월세 검색: 구 + 동 + 전월세 + 월세
+CREATE INDEX IF NOT EXISTS idx_rooms_gu_dong_rent_type_rent_fee
+    ON rooms (gu, dong, rent_type, rent_fee);
+
+-- 3) 구 단위 검색: 구 + 전월세 + 보증금
+CREATE INDEX IF NOT EXISTS idx_rooms_gu_rent_type_deposit
+    ON rooms (gu, rent_type, deposit);
+
+-- 4) 조건 없이 구/동 keyset 페이지 (id 순)
+CREATE INDEX IF NOT EXISTS idx_rooms_gu_dong_id
+    ON rooms (gu, dong, id);
@@ -0,0 +1,10 @@
+-- 적재 시 0.0으로 들어간 좌표를 NULL로 정리 (V2와 같은 규칙)
+-- 지오코딩 대상 선점/재시도/주소 단위 반영 쿼리와 부분 인덱스가 모두 (x IS NULL OR y IS NULL) 기준
+UPDATE rooms SET x = NULL WHERE x = 0;
+UPDATE rooms SET y = NULL WHERE y = 0;
+
+-- 좌표가 없는데 SUCCESS로 남은 행은 다시 대상으로
+UPDATE rooms
+SET geocode_status = 'PENDING'
+WHERE (x IS NULL OR y IS NULL)
+  AND geocode_status = 'SUCCESS';
@@ -0,0 +1,98 @@
+package com.example.seoulapi.service;
+
+import com.example.seoulapi.model.SyncWatermarkEntity;
+import com.example.seoulapi.repository.IngestionCheckpointRepository;
+import com.example.seoulapi.repository.RoomRepository;
+import com.example.seoulapi.repository.SyncWatermarkRepository;
+import com.example.seoulapi.util.SeoulApiUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RentIngestionServiceTest {
+
+    private static final DateTimeFormatter YMD = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 기준 계약일 당일의 기존 계약 N건이 앞쪽에서 다시 잡혀도, 그보다 적은 뒤쪽 늦은 신고분은 조회해야 함
+    @Test
+    void tailIsScannedWhenHeadHasOnlyExistingSameDayRows() {
+        int year = LocalDate.now().getYear();
+        String since = LocalDate.now().minusDays(5).format(YMD);
+        String older = LocalDate.now().minusDays(30).format(YMD);
+        int previousTotal = 3000;
+        int total = 3002;   // 늦은 신고 2건이 뒤에 붙음
+
+        SeoulApiUtil seoulApiUtil = mock(SeoulApiUtil.class);
+        when(seoulApiUtil.fetchTotalCount(year)).thenReturn(total);
+        when(seoulApiUtil.fetchRows(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            int start = invocation.getArgument(1);
+            int end = invocation.getArgument(2);
+            ArrayNode rows = objectMapper.createArrayNode();
+            for (int i = start; i <= end; i++) {
+                if (i > previousTotal) rows.add(row(older, "늦은신고" + i));
+                else if (i <= 5) rows.add(row(since, "기존" + i));     // 기준일 당일 기존 계약 5건
+                else rows.add(row(older, "기존" + i));
+            }
+            return rows;
+        });
+
+        RentService rentService = mock(RentService.class);
+        when(rentService.countNew(anyList())).thenReturn(0);
+        when(rentService.saveRooms(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        SyncWatermarkEntity mark = new SyncWatermarkEntity();
+        mark.setReceiptYear(year);
+        mark.setTotalCount(previousTotal);
+        mark.setMaxCtrtDay(since);
+        SyncWatermarkRepository syncWatermarkRepository = mock(SyncWatermarkRepository.class);
+        when(syncWatermarkRepository.findById(year)).thenReturn(Optional.of(mark));
+
+        RentIngestionService service = new RentIngestionService(
+                seoulApiUtil, rentService, mock(IngestionCheckpointRepository.class),
+                syncWatermarkRepository, mock(RoomRepository.class), 1, 1);
+        ReflectionTestUtils.setField(service, "syncYearsBack", 0);
+        ReflectionTestUtils.setField(service, "syncMaxPages", 50);
+
+        service.syncRecentContracts();
+
+        verify(seoulApiUtil).fetchRows(year, 3001, 3002);
+
+        ArgumentCaptor<List<JsonNode>> saved = ArgumentCaptor.forClass(List.class);
+        verify(rentService, atLeastOnce()).saveRooms(saved.capture());
+        List<String> buildings = new ArrayList<>();
+        saved.getAllValues().forEach(rows -> rows.forEach(row -> buildings.add(row.path("BLDG_NM").asText())));
+        assertThat(buildings).contains("늦은신고3001", "늦은신고3002");
+
+        ArgumentCaptor<SyncWatermarkEntity> watermark = ArgumentCaptor.forClass(SyncWatermarkEntity.class);
+        verify(syncWatermarkRepository).save(watermark.capture());
+        assertThat(watermark.getValue().getTotalCount()).isEqualTo(total);
+
+        service.shutdown();
+    }
+
+    private JsonNode row(String ctrtDay, String building) {
+        return objectMapper.createObjectNode()
+                .put("CTRT_DAY", ctrtDay)
+                .put("CGG_NM", "마포구")
+                .put("BLDG_NM", building);
+    }
+}
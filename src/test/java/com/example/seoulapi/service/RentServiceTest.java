@@ -0,0 +1,69 @@
+package com.example.seoulapi.service;
+
+import com.example.seoulapi.model.RoomEntity;
+import com.example.seoulapi.repository.RoomBulkWriter;
+import com.example.seoulapi.repository.RoomRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RentServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 지문 인덱스 적중이어도 DB에 없는 apiId(지문 충돌)는 버리지 않고 저장
+    @Test
+    void fingerprintHitIsConfirmedAgainstDatabase() {
+        ApiIdDedupIndex dedupIndex = mock(ApiIdDedupIndex.class);
+        when(dedupIndex.contains(anyString())).thenReturn(true);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        RoomBulkWriter roomBulkWriter = mock(RoomBulkWriter.class);
+        when(roomBulkWriter.batchInsert(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        RentService rentService = new RentService(
+                roomRepository, mock(EntityManager.class), mock(GeocodeService.class),
+                mock(RoomSpatialIndex.class), roomBulkWriter, dedupIndex, objectMapper);
+
+        ObjectNode other = row();
+        other.put("BLDG_NM", "다른빌라");
+        List<RoomEntity> converted = rentService.convertRows(List.of(row(), other));
+        String existingApiId = converted.get(0).getApiId();
+        when(roomRepository.findExistingApiIds(anyCollection())).thenReturn(List.of(existingApiId));
+
+        assertThat(rentService.writeRooms(converted)).isEqualTo(1);
+
+        ArgumentCaptor<List<RoomEntity>> written = ArgumentCaptor.forClass(List.class);
+        verify(roomBulkWriter).batchInsert(written.capture());
+        assertThat(written.getValue()).extracting(RoomEntity::getBuilding).containsExactly("다른빌라");
+    }
+
+    private ObjectNode row() {
+        ObjectNode row = objectMapper.createObjectNode();
+        row.put("CTRT_DAY", "20240315");
+        row.put("CGG_NM", "마포구");
+        row.put("STDG_NM", "서교동");
+        row.put("MNO", "0395");
+        row.put("SNO", "0012");
+        row.put("BLDG_NM", "테스트빌라");
+        row.put("RENT_SE", "월세");
+        row.put("GRFE", "1000");
+        row.put("RTFE", "60");
+        row.put("RENT_AREA", "23.5");
+        row.put("FLR", "3");
+        row.put("ARCH_YR", "2015");
+        row.put("RCPT_YR", "2024");
+        return row;
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.seoulapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ScoringEngineTest {
+
+    private static final int[] SAFETY_ONLY = {1, 0, 0, 0, 0, 0};
+    private static final int[] MIXED = {2, 0, 0, 1, 0, 1};
+
+    // 강남구 3개 동 + 마포구 1개 동 (서교동 생활편의는 빈 칸 -> 0)
+    private final Path fixture = fixture();
+
+    @Test
+    void weightedScoresAreWeightedAverageOfIndicators() throws Exception {
+        ScoringEngine.Table table = ScoringEngine.Table.load(fixture);
+        int[] rows = table.rowsOf("강남구");
+
+        // 역삼 (80*2 + 90 + 50) / 4, 삼성 (60*2 + 70 + 90) / 4, 대치 (40*2 + 50 + 70) / 4
+        assertThat(table.weightedScores(rows, MIXED)).containsExactly(75.0, 70.0, 50.0);
+        assertThat(table.weightedScores(table.rowsOf("마포구"), new int[]{0, 0, 0, 0, 0, 1})).containsExactly(0.0);
+        assertThat(table.weightedScores(rows, new int[6])).containsExactly(0.0, 0.0, 0.0);
+        assertThat(table.rowsOf("없는구")).isEmpty();
+    }
+
+    @Test
+    void scoreIsSortedByScoreDescending() {
+        ScoringEngine engine = engine(fixture);
+
+        List<Map<String, Object>> scores = engine.score("강남구", MIXED);
+
+        assertThat(scores).extracting(item -> item.get("법정동")).containsExactly("역삼동", "삼성동", "대치동");
+        assertThat(scores.get(0)).containsOnlyKeys("법정동코드", "법정동", "시군구명", "최종점수");
+        assertThat(scores.get(0)).containsEntry("법정동코드", "1168010100").containsEntry("최종점수", 75.0);
+    }
+
+    @Test
+    void percentilesCoverSelectedCategoriesOnly() {
+        ScoringEngine engine = engine(fixture);
+
+        assertThat(engine.percentiles("강남구", SAFETY_ONLY)).containsOnlyKeys("역삼동", "삼성동", "대치동");
+        assertMatches(engine.percentiles("강남구", SAFETY_ONLY), safetyPercentiles());
+        assertMatches(engine.percentiles("강남구", MIXED), mixedPercentiles());
+    }
+
+    @Test
+    void validatedAfterRequiredDistinctWeights() {
+        ScoringEngine engine = engine(fixture);
+
+        engine.validate("강남구", MIXED, mixedScores(), mixedPercentiles());
+        // 같은 가중치 조합 반복은 한 번으로
+        engine.validate("강남구", MIXED, mixedScores(), mixedPercentiles());
+        assertThat(engine.isValidated("강남구")).isFalse();
+
+        engine.validate("강남구", SAFETY_ONLY, safetyScores(), safetyPercentiles());
+        assertThat(engine.isValidated("강남구")).isTrue();
+        assertThat(engine.isValidated("마포구")).isFalse();
+    }
+
+    @Test
+    void scoreMismatchPinsGuToPython() {
+        ScoringEngine engine = engine(fixture);
+        List<Map<String, Object>> python = mixedScores();
+        python.get(1).put("최종점수", 70.5);
+
+        engine.validate("강남구", MIXED, python, mixedPercentiles());
+        // 이후 일치해도 계속 Python 사용
+        engine.validate("강남구", MIXED, mixedScores(), mixedPercentiles());
+        engine.validate("강남구", SAFETY_ONLY, safetyScores(), safetyPercentiles());
+
+        assertThat(engine.isValidated("강남구")).isFalse();
+        assertThat(engine.getStatus().get("mismatchedGus")).isEqualTo(List.of("강남구"));
+    }
+
+    @Test
+    void extraPythonFieldPinsGuToPython() {
+        ScoringEngine engine = engine(fixture);
+        List<Map<String, Object>> python = mixedScores();
+        python.forEach(item -> item.put("등급", "A"));
+
+        engine.validate("강남구", MIXED, python, mixedPercentiles());
+        engine.validate("강남구", SAFETY_ONLY, safetyScores(), safetyPercentiles());
+
+        assertThat(engine.isValidated("강남구")).isFalse();
+    }
+
+    // Python이 선택하지 않은 항목 백분위까지 내려주면 형태가 달라 Python 유지
+    @Test
+    void percentileShapeMismatchPinsGuToPython() {
+        ScoringEngine engine = engine(fixture);
+        Map<String, Map<String, Object>> python = safetyPercentiles();
+        python.get("역삼동").put("living", 66.67);
+
+        engine.validate("강남구", SAFETY_ONLY, safetyScores(), python);
+        engine.validate("강남구", MIXED, mixedScores(), mixedPercentiles());
+
+        assertThat(engine.isValidated("강남구")).isFalse();
+    }
+
+    @Test
+    void percentileValueMismatchPinsGuToPython() {
+        ScoringEngine engine = engine(fixture);
+        Map<String, Map<String, Object>> python = mixedPercentiles();
+        python.get("삼성동").put("total", 50.0);
+
+        engine.validate("강남구", MIXED, mixedScores(), python);
+        engine.validate("강남구", SAFETY_ONLY, safetyScores(), safetyPercentiles());
+
+        assertThat(engine.isValidated("강남구")).isFalse();
+    }
+
+    // 항목 지표 외 컬럼은 Python 출력 필드로 그대로 실림
+    @Test
+    void extraCsvColumnsAreCarriedThrough(@TempDir Path dir) throws Exception {
+        Path csv = dir.resolve("indicators.csv");
+        List<String> lines = new ArrayList<>(Files.readAllLines(fixture, StandardCharsets.UTF_8));
+        lines.set(0, lines.get(0) + ",등급");
+        for (int i = 1; i < lines.size(); i++) lines.set(i, lines.get(i) + ",A");
+        Files.write(csv, lines, StandardCharsets.UTF_8);
+
+        ScoringEngine engine = engine(csv);
+        List<Map<String, Object>> mixed = mixedScores();
+        mixed.forEach(item -> item.put("등급", "A"));
+        List<Map<String, Object>> safety = safetyScores();
+        safety.forEach(item -> item.put("등급", "A"));
+
+        assertThat(engine.score("강남구", MIXED).get(0)).containsEntry("등급", "A");
+
+        engine.validate("강남구", MIXED, mixed, mixedPercentiles());
+        engine.validate("강남구", SAFETY_ONLY, safety, safetyPercentiles());
+        assertThat(engine.isValidated("강남구")).isTrue();
+    }
+
+    @Test
+    void missingCsvDisablesEngine(@TempDir Path dir) {
+        ScoringEngine engine = engine(dir.resolve("missing.csv"));
+
+        assertThat(engine.isAvailable()).isFalse();
+        engine.validate("강남구", MIXED, mixedScores(), Map.of());
+        assertThat(engine.isValidated("강남구")).isFalse();
+    }
+
+    private ScoringEngine engine(Path csv) {
+        return new ScoringEngine(true, csv.toString(), 2, 0.01);
+    }
+
+    // score_model.py 출력 형태 (법정동코드는 숫자로 내려오는 경우도 있음)
+    private List<Map<String, Object>> mixedScores() {
+        List<Map<String, Object>> items = new ArrayList<>();
+        items.add(pythonItem(1168010100L, "역삼동", 75));
+        items.add(pythonItem(1168010500L, "삼성동", 70));
+        items.add(pythonItem(1168010600L, "대치동", 50));
+        return items;
+    }
+
+    private List<Map<String, Object>> safetyScores() {
+        List<Map<String, Object>> items = new ArrayList<>();
+        items.add(pythonItem(1168010100L, "역삼동", 80));
+        items.add(pythonItem(1168010500L, "삼성동", 60));
+        items.add(pythonItem(1168010600L, "대치동", 40));
+        return items;
+    }
+
+    private Map<String, Object> pythonItem(long code, String dong, double score) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("법정동코드", code);
+        item.put("법정동", dong);
+        item.put("시군구명", "강남구");
+        item.put("최종점수", score);
+        return item;
+    }
+
+    // 기대 백분위 - 선택 항목 + total, 소수 둘째 자리 반올림 (구 내 값 이하 비율)
+    private Map<String, Map<String, Object>> safetyPercentiles() {
+        Map<String, Map<String, Object>> percentiles = new LinkedHashMap<>();
+        percentiles.put("역삼동", percentile("safety", 100.0, "total", 100.0));
+        percentiles.put("삼성동", percentile("safety", 66.67, "total", 66.67));
+        percentiles.put("대치동", percentile("safety", 33.33, "total", 33.33));
+        return percentiles;
+    }
+
+    private Map<String, Map<String, Object>> mixedPercentiles() {
+        Map<String, Map<String, Object>> percentiles = new LinkedHashMap<>();
+        percentiles.put("역삼동", percentile("safety", 100.0, "transport", 100.0, "convenience", 33.33, "total", 100.0));
+        percentiles.put("삼성동", percentile("safety", 66.67, "transport", 66.67, "convenience", 100.0, "total", 66.67));
+        percentiles.put("대치동", percentile("safety", 33.33, "transport", 33.33, "convenience", 66.67, "total", 33.33));
+        return percentiles;
+    }
+
+    private Map<String, Object> percentile(Object... keyValues) {
+        Map<String, Object> percentile = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            percentile.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return percentile;
+    }
+
+    private void assertMatches(Map<String, Map<String, Object>> actual, Map<String, Map<String, Object>> expected) {
+        assertThat(actual).containsOnlyKeys(expected.keySet());
+        expected.forEach((dong, fields) -> {
+            assertThat(actual.get(dong)).containsOnlyKeys(fields.keySet());
+            fields.forEach((key, value) ->
+                    assertThat((double) actual.get(dong).get(key)).isCloseTo((double) value, within(0.01)));
+        });
+    }
+
+    private static Path fixture() {
+        try {
+            return Paths.get(ScoringEngineTest.class.getResource("/scoring/indicators.csv").toURI());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}